@@ -831,7 +831,21 @@ public class Notification {
 	 * Cancel the reminder alarm.
 	 */
 	public void cancelReminder(){
-		if (_debug) Log.v(_context, "Notification.cancelReminder()");
+		String intentAction = cancelReminderAlarm();
+		if(intentAction != null){
+	    	//Update the reminder in the db.
+	    	ReminderCommon.updateValue(_context, intentAction, true);
+		}
+	}
+	
+	/**
+	 * Cancel the reminder alarm without updating the reminder DB.
+	 * This lets the reminders of several notifications be updated together.
+	 * 
+	 * @return String - The action of the reminder that needs to be dismissed in the reminder DB or null if there is no reminder.
+	 */
+	public String cancelReminderAlarm(){
+		if (_debug) Log.v(_context, "Notification.cancelReminderAlarm()");
 		try{
 			if(_preferences.getBoolean(Constants.REMINDERS_ENABLED_KEY, false) || _notificationType == Constants.NOTIFICATION_TYPE_CALENDAR){
 				
@@ -841,19 +855,18 @@ public class Notification {
 				reminderIntent.setAction(intentAction);
 				PendingIntent reminderPendingIntent = PendingIntent.getBroadcast(_context, 0, reminderIntent, 0);
 				reminderPendingIntent.cancel();
-				if (_debug) Log.v(_context, "Notification.cancelReminder() Reminder Notification Action: " + intentAction);
+				if (_debug) Log.v(_context, "Notification.cancelReminderAlarm() Reminder Notification Action: " + intentAction);
 				
 				//Cancel the alarm.
 		    	AlarmManager alarmManager = (AlarmManager) _context.getSystemService(Context.ALARM_SERVICE);
 		    	alarmManager.cancel(reminderPendingIntent);
 		    	
-		    	//Update the reminder in the db.
-		    	ReminderCommon.updateValue(_context, intentAction, true);
-		    	
+		    	return intentAction;
 			}
 		}catch(Exception ex){
-			Log.e(_context, "Notification.cancelReminder() ERROR: " + ex.toString());
+			Log.e(_context, "Notification.cancelReminderAlarm() ERROR: " + ex.toString());
 		}
+		return null;
 	}
 	
 	/**
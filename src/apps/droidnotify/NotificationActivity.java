@@ -1347,6 +1347,7 @@ public class NotificationActivity extends Activity{
 	
 	/**
 	 * Setup the generic bundle notification.
+	 * The bundle holds either a single notification or a batch of notifications sent through the notification API.
 	 * 
 	 * @param bundle - Activity bundle.
 	 * 
@@ -1361,6 +1362,19 @@ public class NotificationActivity extends Activity{
 			}
 			boolean displayPopup = !Common.restrictPopup(_context);				
 			//Only display the notification popup window if not in restrict mode.
+			Bundle notificationBundle = bundle.getBundle(Constants.BUNDLE_NOTIFICATION_BUNDLE_NAME);
+			if(displayPopup && notificationBundle != null){
+				int bundleCount = notificationBundle.getInt(Constants.BUNDLE_NOTIFICATION_BUNDLE_COUNT, -1);
+				for(int i=1;i<=bundleCount;i++){
+					Bundle notificationBundleSingle = notificationBundle.getBundle(Constants.BUNDLE_NOTIFICATION_BUNDLE_NAME + "_" + String.valueOf(i));
+					Notification notification = new Notification(_context, notificationBundleSingle);
+					//Add the Notification to the ViewFlipper.
+					_notificationViewFlipper.addNotification(notification, true);
+					//Display Status Bar Notification
+					notification.postStatusBarNotification(getNotificationTypeCount(notification.getNotificationType(), notification.getNotificationSubType()), notificationBundleSingle);
+				}
+				return bundleCount > 0;
+			}
 			if(displayPopup){
 				Notification notification = new Notification(_context, bundle);
 				//Add the Notification to the ViewFlipper.
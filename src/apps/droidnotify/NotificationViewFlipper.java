@@ -24,6 +24,7 @@ import android.widget.ViewFlipper;
 import apps.droidnotify.common.Common;
 import apps.droidnotify.common.Constants;
 import apps.droidnotify.log.Log;
+import apps.droidnotify.reminder.ReminderCommon;
 import apps.droidnotify.Notification;
 import apps.droidnotify.NotificationView;
 
@@ -206,15 +207,19 @@ public class NotificationViewFlipper extends ViewFlipper {
 		//Must iterate backwards through this collection.
 		//By removing items from the end, we don't have to worry about shifting index numbers as we would if we removed from the beginning.
 		int totalNotifications = this.getChildCount();
+		ArrayList<String> reminderActions = new ArrayList<String>();
 		for(int i=totalNotifications-1; i>=0; i--){
 			Notification notification = ((NotificationView) this.getChildAt(i)).getNotification();
 			if(notification.getThreadID() == threadID){
 				//Cancel the reminder.
-				notification.cancelReminder();
+				String reminderAction = notification.cancelReminderAlarm();
+				if(reminderAction != null) reminderActions.add(reminderAction);
 				//Remove the notification at this index.
 				removeNotification(i, false);
 			}
 		}
+		//Update all the reminders in the db at once.
+		ReminderCommon.updateValues(_context, reminderActions, true);
 		//Clear the status bar notification for SMS & MMS types.
 		Common.clearNotification(_context, this, Constants.NOTIFICATION_TYPE_SMS);
     	Common.clearNotification(_context, this, Constants.NOTIFICATION_TYPE_MMS);
@@ -352,15 +357,19 @@ public class NotificationViewFlipper extends ViewFlipper {
   	public void dismissAllNotifications(){
 		try{
 			int totalNotifications = this.getChildCount();
+			ArrayList<String> reminderActions = new ArrayList<String>();
 			for (int i=0; i<totalNotifications; i++){
 				Notification notification = ((NotificationView)this.getChildAt(i)).getNotification();
 				//Cancel the reminder.
-				notification.cancelReminder();
+				String reminderAction = notification.cancelReminderAlarm();
+				if(reminderAction != null) reminderActions.add(reminderAction);
 				//Set the notification as being viewed.
 				notification.setViewed(true);
 				//Clear all the status bar notifications.
 				Common.clearAllNotifications(_context);
 			}
+			//Update all the reminders in the db at once.
+			ReminderCommon.updateValues(_context, reminderActions, true);
   		}catch(Exception ex){
   			Log.e(_context, "NotificationViewFlipper.dismissAllNotifications() ERROR: " + ex.toString());
   		}
@@ -374,6 +383,7 @@ public class NotificationViewFlipper extends ViewFlipper {
 			String masterSentFromAddress = this.getActiveNotification().getSentFromAddress();
 			long masterContactID = this.getActiveNotification().getContactID();
 			int totalNotifications = this.getChildCount();
+			ArrayList<String> reminderActions = new ArrayList<String>();
 			for(int i=totalNotifications-1; i>=0; i--){
 				Notification notification = ((NotificationView) this.getChildAt(i)).getNotification();
 				boolean removeNotification = false;
@@ -386,11 +396,14 @@ public class NotificationViewFlipper extends ViewFlipper {
 				}
 				if(removeNotification){
 					//Cancel the reminder.
-					notification.cancelReminder();
+					String reminderAction = notification.cancelReminderAlarm();
+					if(reminderAction != null) reminderActions.add(reminderAction);
 					//Remove the notification at this index.
 					this.removeNotification(i, false);
 				}
 			}
+			//Update all the reminders in the db at once.
+			ReminderCommon.updateValues(_context, reminderActions, true);
 			//Update the navigation information on the current View.
 			if(this.getChildCount() > 0){
 				final View currentView = this.getCurrentView();				
@@ -412,6 +425,7 @@ public class NotificationViewFlipper extends ViewFlipper {
 			int masterNotificationType = this.getActiveNotification().getNotificationType();
 			String masterPackageName = this.getActiveNotification().getPackageName();
 			int totalNotifications = this.getChildCount();
+			ArrayList<String> reminderActions = new ArrayList<String>();
 			for(int i=totalNotifications-1; i>=0; i--){
 				Notification notification = ((NotificationView) this.getChildAt(i)).getNotification();
 				boolean removeNotification = false;
@@ -422,11 +436,14 @@ public class NotificationViewFlipper extends ViewFlipper {
 				}
 				if(removeNotification){
 					//Cancel the reminder.
-					notification.cancelReminder();
+					String reminderAction = notification.cancelReminderAlarm();
+					if(reminderAction != null) reminderActions.add(reminderAction);
 					//Remove the notification at this index.
 					this.removeNotification(i, false);
 				}
 			}
+			//Update all the reminders in the db at once.
+			ReminderCommon.updateValues(_context, reminderActions, true);
 			//Update the navigation information on the current View.
 			if(this.getChildCount() > 0){
 				final View currentView = this.getCurrentView();
@@ -4,7 +4,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
 
@@ -13,6 +14,7 @@ import android.app.AlarmManager;
 import android.app.PendingIntent;
 import android.provider.CalendarContract;
 import android.content.ContentResolver;
+import android.content.ContentValues;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
@@ -26,6 +28,7 @@ import apps.droidnotify.NotificationActivity;
 import apps.droidnotify.R;
 import apps.droidnotify.common.Common;
 import apps.droidnotify.common.Constants;
+import apps.droidnotify.db.DBConstants;
 import apps.droidnotify.log.Log;
 import apps.droidnotify.receivers.CalendarAlarmReceiver;
 import apps.droidnotify.receivers.CalendarNotificationAlarmReceiver;
@@ -41,7 +44,26 @@ public class CalendarCommon {
     // Properties
     //================================================================================
 	
+	private static final long CALENDAR_REFRESH_DELAY = 10 * 1000;
+	
+	private static final int EVENT_STATUS_CACHE_SIZE = 100;
+	private static final int EVENT_MESSAGE_CACHE_SIZE = 50;
+	
 	private static boolean _debug = false;
+	private static HashMap<Long, Integer> _eventStatusCache = new HashMap<Long, Integer>();
+	private static final Object _lookaheadLock = new Object();
+	private static ArrayList<CalendarEvent> _lookaheadCalendarEvents = null;
+	private static HashMap<String, String> _lookaheadCalendars = null;
+	private static long _lookaheadTime = 0;
+	private static long _lookaheadEndTime = 0;
+	private static volatile String _availableCalendars = null;
+	private static String _eventMessageSettings = null;
+	@SuppressWarnings("serial")
+	private static LinkedHashMap<String, String> _eventMessageCache = new LinkedHashMap<String, String>(16, 0.75f, true){
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldestEntry){
+			return size() > EVENT_MESSAGE_CACHE_SIZE;
+		}
+	};
 	
 	//================================================================================
 	// Public Methods
@@ -53,12 +75,11 @@ public class CalendarCommon {
 	 * 
 	 * @param context - Application Context.
 	 */
-	@SuppressLint("NewApi")
 	public static void readCalendars(Context context){
 		_debug = Log.getDebug(context);
 		if (_debug) Log.v(context, "CalendarCommon.readCalendars()");
 		try{
-			int APILevel = Common.getDeviceAPILevel();
+			CalendarSchema calendarSchema = CalendarSchema.getCalendarSchema();
 			//Determine the reminder interval based on the users preferences.
 			SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
 			//Read preferences and exit if app is disabled.
@@ -67,7 +88,9 @@ public class CalendarCommon {
 				return;
 			}
 			//Block the notification if it's quiet time.
-			if(Common.isQuietTime(context)){
+			//Event driven refreshes only arm the next alarm, so they must still run during quiet time or the alarms after it would be missed.
+			//Quiet time is then enforced when the calendar notification is displayed.
+			if(!preferences.getBoolean(Constants.CALENDAR_EVENT_DRIVEN_ENABLED_KEY, false) && Common.isQuietTime(context)){
 				if (_debug) Log.v(context, "CalendarCommon.readCalendars() Quiet Time. Exiting...");
 				return;
 			}
@@ -83,28 +106,13 @@ public class CalendarCommon {
 			}
 			ContentResolver contentResolver = context.getContentResolver();
 			// Fetch a list of all calendars synced with the device, their display names and whether the user has them selected for display.
-			String contentProvider = null;	
-			String calendarIDColumn = null;
-			String calendarDisplayNameColumn = null;
-			String calendarSelectedColumn = null;
-			if(APILevel >= android.os.Build.VERSION_CODES.ICE_CREAM_SANDWICH){
-				contentProvider = CalendarContract.Calendars.CONTENT_URI.toString();
-				calendarIDColumn = CalendarContract.Calendars._ID;
-				calendarDisplayNameColumn = CalendarContract.Events.CALENDAR_DISPLAY_NAME;
-				calendarSelectedColumn = CalendarContract.Events.VISIBLE;
-			}else{
-				contentProvider = "content://com.android.calendar/calendars";
-				calendarIDColumn = Constants.CALENDAR_ID;
-				calendarDisplayNameColumn = Constants.CALENDAR_DISPLAY_NAME;
-				calendarSelectedColumn = Constants.CALENDAR_SELECTED;
-			}
-			if (_debug) Log.v(context, "CalendarCommon.readCalendars() ContentProvider URI String: " + contentProvider);
+			if (_debug) Log.v(context, "CalendarCommon.readCalendars() ContentProvider URI String: " + calendarSchema.getCalendarsUri());
 			HashMap<String, String> calendarIds = new HashMap<String, String>();
 		 	Cursor cursor = null;
 			try{
 				cursor = contentResolver.query(
-					Uri.parse(contentProvider), 						
-					null,
+					calendarSchema.getCalendarsUri(), 						
+					calendarSchema.getCalendarsProjection(),
 					null,
 					null,
 					null);
@@ -116,9 +124,9 @@ public class CalendarCommon {
 					long calendarID = -1;
 					String calendarDisplayName = null;
 					Boolean calendarSelected = true;
-					calendarID = cursor.getLong(cursor.getColumnIndex(calendarIDColumn));
-					calendarDisplayName = cursor.getString(cursor.getColumnIndex(calendarDisplayNameColumn));
-					calendarSelected = !cursor.getString(cursor.getColumnIndex(calendarSelectedColumn)).equals("0");
+					calendarID = cursor.getLong(CalendarSchema.CALENDARS_ID_INDEX);
+					calendarDisplayName = cursor.getString(CalendarSchema.CALENDARS_DISPLAY_NAME_INDEX);
+					calendarSelected = !cursor.getString(CalendarSchema.CALENDARS_SELECTED_INDEX).equals("0");
 					if(calendarsArray.contains(String.valueOf(calendarID))){
 						if (_debug) Log.v(context, "CalendarCommon.readCalendars() CHECKING CALENDAR -  Calendar ID: " + String.valueOf(calendarID) + " Display Name: " + calendarDisplayName + " Selected: " + calendarSelected);
 						calendarIds.put(String.valueOf(calendarID), calendarDisplayName);
@@ -142,176 +150,90 @@ public class CalendarCommon {
 			long reminderInterval = Long.parseLong(preferences.getString(Constants.CALENDAR_REMINDER_KEY, "15")) * 60 * 1000;
 			long reminderIntervalAllDay = Long.parseLong(preferences.getString(Constants.CALENDAR_REMINDER_ALL_DAY_KEY, "6")) * 60 * 60 * 1000;
 			long dayOfReminderIntervalAllDay = Long.parseLong(preferences.getString(Constants.CALENDAR_NOTIFY_DAY_OF_TIME_KEY, "12")) * 60 * 60 * 1000;
-			// For each calendar, read the events.
-			Iterator<Map.Entry<String, String>> calendarIdsEnumerator = calendarIds.entrySet().iterator();
-			while(calendarIdsEnumerator.hasNext()){
-				Map.Entry<String, String> calendarInfo = calendarIdsEnumerator.next();
-				String calendarID = calendarInfo.getKey();
-				String calendarName = calendarInfo.getValue();
-				if (_debug) Log.v(context, "CalendarCommon.readCalendars() CHECKING EVENTS FOR CALENDAR -  Calendar ID: " + calendarID  + " Calendar Name: " + calendarName);
-				String calendarEventContentProvider = null;
-				String eventCalendarIDColumn = null;
-				String eventIDColumn = null;
-				String eventTitleColumn = null;
-				String eventStartTimeColumn = null;
-				String eventEndTimeColumn = null;
-				String eventAllDayColumn = null;
-				String eventHasAlarmColumn = null;
-				String eventQuerySortOrder = null;
-				if(APILevel >= android.os.Build.VERSION_CODES.ICE_CREAM_SANDWICH){
-					calendarEventContentProvider = CalendarContract.Events.CONTENT_URI.toString();
-					eventCalendarIDColumn = CalendarContract.Events.CALENDAR_ID;
-					eventIDColumn = CalendarContract.Events._ID;
-					eventTitleColumn = CalendarContract.Events.TITLE;
-					eventStartTimeColumn = CalendarContract.Events.DTSTART;
-					eventEndTimeColumn = CalendarContract.Events.DTEND;
-    				eventAllDayColumn = CalendarContract.Events.ALL_DAY;
-    				eventHasAlarmColumn = CalendarContract.Events.HAS_ALARM;
-    				eventQuerySortOrder = eventStartTimeColumn + " ASC";
-				}else{
-					calendarEventContentProvider = "content://com.android.calendar/events";
-					eventCalendarIDColumn = Constants.CALENDAR_CALENDAR_ID;
-					eventIDColumn = Constants.CALENDAR_EVENT_ID;
-					eventTitleColumn = Constants.CALENDAR_EVENT_TITLE;
-					eventStartTimeColumn = Constants.CALENDAR_INSTANCE_BEGIN;
-					eventEndTimeColumn = Constants.CALENDAR_INSTANCE_END;
-    				eventAllDayColumn = Constants.CALENDAR_EVENT_ALL_DAY;
-    				eventHasAlarmColumn = Constants.CALENDAR_EVENT_HAS_ALARM;
-    				eventQuerySortOrder = eventStartTimeColumn + " ASC";
-				}
-				if (_debug) Log.v(context, "CalendarCommon.readCalendars() CalendarEventContentProvider URI String: " + calendarEventContentProvider);			
-				//The start time of the query.
-				long queryStartTime = System.currentTimeMillis();
-				long queryEndTime = queryStartTime + AlarmManager.INTERVAL_DAY;
-	    		final String[] projection = new String[] {
-						eventCalendarIDColumn,
-						eventIDColumn,
-						eventTitleColumn,
-						eventStartTimeColumn,
-						eventEndTimeColumn,
-	    				eventAllDayColumn,
-	    				eventHasAlarmColumn};
-	            final String selection = eventCalendarIDColumn + "=? AND " + eventStartTimeColumn + ">=? AND " + eventStartTimeColumn + "<=?";
-	    		final String[] selectionArgs = new String[]{calendarID, String.valueOf(queryStartTime), String.valueOf(queryEndTime)};
-	    		final String sortOrder = eventQuerySortOrder;
-				Cursor eventCursor = null;
-				try{
-					eventCursor = contentResolver.query(
-							Uri.parse(calendarEventContentProvider)	,
-							projection,
-							selection,
-							selectionArgs,
-							sortOrder);
-					if(eventCursor ==  null){
-						Log.e(context, "CalendarCommon.readCalendars() READ CALENDAR EVENTS: Event cursor is null. Exiting...");
-						cursor.close();
-						return;
+			// Read the events for all of the selected calendars, only the leading edge of the lookahead window is read from the calendars.
+			long pollStartTime = System.currentTimeMillis();
+			long lookaheadTime = Long.parseLong(preferences.getString(Constants.CALENDAR_LOOKAHEAD_DAYS_KEY, Constants.CALENDAR_LOOKAHEAD_DAYS_DEFAULT)) * AlarmManager.INTERVAL_DAY;
+			boolean remindersEnabled = preferences.getBoolean(Constants.CALENDAR_REMINDERS_ENABLED_KEY, true);
+			boolean useCalendarReminderSettings = preferences.getBoolean(Constants.CALENDAR_USE_CALENDAR_REMINDER_SETTINGS_KEY, true);
+			ArrayList<CalendarEvent> calendarEvents = getLookaheadCalendarEvents(context, calendarIds, pollStartTime, lookaheadTime, remindersEnabled && useCalendarReminderSettings);
+			if(calendarEvents == null){
+				return;
+			}
+			try{
+				//For all any event in the past, don't schedule them.
+				long currentSystemTime = System.currentTimeMillis();
+				long timezoneOffsetValue =  TimeZone.getDefault().getOffset(currentSystemTime);
+				//Build the list of alarms that should be scheduled, keyed by their intent action.
+				HashMap<String, CalendarAlarm> calendarAlarms = new HashMap<String, CalendarAlarm>();
+				for(CalendarEvent calendarEvent : calendarEvents){
+					if(calendarEvent.startTime <= currentSystemTime){
+						continue;
 					}
-					while(eventCursor.moveToNext()){
-						long eventCalendarID = eventCursor.getLong(eventCursor.getColumnIndex(eventCalendarIDColumn));
-						String eventID = eventCursor.getString(eventCursor.getColumnIndex(eventIDColumn));
-						String eventTitle = eventCursor.getString(eventCursor.getColumnIndex(eventTitleColumn));
-						long eventStartTime = eventCursor.getLong(eventCursor.getColumnIndex(eventStartTimeColumn));
-						long eventEndTime = eventCursor.getLong(eventCursor.getColumnIndex(eventEndTimeColumn));
-						final Boolean allDay = !eventCursor.getString(eventCursor.getColumnIndex(eventAllDayColumn)).equals("0");
-						final Boolean hasReminderAlarm = !eventCursor.getString(eventCursor.getColumnIndex(eventHasAlarmColumn)).equals("0");
-						if (_debug) Log.v(context, "CalendarCommon.readCalendars() Calendar ID: " + eventCalendarID + 
-								" Event ID: " + eventID + 
-								" Event Title: " + eventTitle + 
-								" Event Begin: " + eventStartTime + 
-								" Event End: " + eventEndTime + 
-								" Event All Day: " + allDay + 
-								" Event Has Reminder Alarm: " + hasReminderAlarm);
-						long timezoneOffsetValue =  TimeZone.getDefault().getOffset(System.currentTimeMillis());
-						//For all any event in the past, don't schedule them.
-						long currentSystemTime = System.currentTimeMillis();
-						if(eventStartTime > currentSystemTime){
-							if(allDay){
-								//Special case for all-day events.
-								eventStartTime = eventStartTime  - timezoneOffsetValue;
-								eventEndTime = eventEndTime  - timezoneOffsetValue;
-								//Schedule the notification for the event time.
-								Bundle calendarEventNotificationBundleSingle = new Bundle();
-								calendarEventNotificationBundleSingle.putString(Constants.BUNDLE_TITLE, eventTitle);
-								calendarEventNotificationBundleSingle.putString(Constants.BUNDLE_MESSAGE_BODY, eventTitle);
-								calendarEventNotificationBundleSingle.putLong(Constants.BUNDLE_CALENDAR_EVENT_START_TIME, eventStartTime);
-								calendarEventNotificationBundleSingle.putLong(Constants.BUNDLE_CALENDAR_EVENT_END_TIME, eventEndTime);
-								calendarEventNotificationBundleSingle.putBoolean(Constants.BUNDLE_ALL_DAY, allDay);
-								calendarEventNotificationBundleSingle.putString(Constants.BUNDLE_CALENDAR_NAME, calendarName);
-								calendarEventNotificationBundleSingle.putLong(Constants.BUNDLE_CALENDAR_ID, Long.parseLong(calendarID));
-								calendarEventNotificationBundleSingle.putLong(Constants.BUNDLE_CALENDAR_EVENT_ID, Long.parseLong(eventID));
-								calendarEventNotificationBundleSingle.putInt(Constants.BUNDLE_NOTIFICATION_TYPE, Constants.NOTIFICATION_TYPE_CALENDAR);
-								if(preferences.getBoolean(Constants.CALENDAR_EVENT_TIME_REMINDER_KEY, false)){
-									scheduleCalendarNotification(context, eventStartTime + dayOfReminderIntervalAllDay, calendarEventNotificationBundleSingle, "apps.droidnotify.view.calendar." + calendarID + "." + eventID);
-								}
-								//Schedule the reminder notification if it is enabled.
-								if(preferences.getBoolean(Constants.CALENDAR_REMINDERS_ENABLED_KEY,true)){
-									//Only schedule the all day event if the current time is before the notification time.
-									if(preferences.getBoolean(Constants.CALENDAR_USE_CALENDAR_REMINDER_SETTINGS_KEY,true)){
-										if(hasReminderAlarm){
-											reminderIntervalAllDay = getCalendarEventReminderTime(context, Long.parseLong(eventID), true);	
-											if(reminderIntervalAllDay > 0){
-												//Only schedule the event if the current time is before the notification time.
-												if((eventStartTime - reminderIntervalAllDay) > currentSystemTime){
-													scheduleCalendarNotification(context, eventStartTime - reminderIntervalAllDay, calendarEventNotificationBundleSingle, "apps.droidnotify.view.calendar.reminder." + calendarID + "." + eventID);
-												}
-											}
-										}
-									}else{
-										//Only schedule the event if the current time is before the notification time.
-										if((eventStartTime - reminderIntervalAllDay) > currentSystemTime){
-											scheduleCalendarNotification(context, eventStartTime - reminderIntervalAllDay, calendarEventNotificationBundleSingle, "apps.droidnotify.view.calendar.reminder." + calendarID + "." + eventID);
-										}
-									}
-								}
-							}else{
-								//Schedule non-all-day events.
-								//Schedule the notification for the event time.
-								Bundle calendarEventNotificationBundleSingle = new Bundle();
-								calendarEventNotificationBundleSingle.putString(Constants.BUNDLE_TITLE, eventTitle);
-								calendarEventNotificationBundleSingle.putString(Constants.BUNDLE_MESSAGE_BODY, eventTitle);
-								calendarEventNotificationBundleSingle.putLong(Constants.BUNDLE_CALENDAR_EVENT_START_TIME, eventStartTime);
-								calendarEventNotificationBundleSingle.putLong(Constants.BUNDLE_CALENDAR_EVENT_END_TIME, eventEndTime);
-								calendarEventNotificationBundleSingle.putBoolean(Constants.BUNDLE_ALL_DAY, allDay);
-								calendarEventNotificationBundleSingle.putString(Constants.BUNDLE_CALENDAR_NAME, calendarName);
-								calendarEventNotificationBundleSingle.putLong(Constants.BUNDLE_CALENDAR_ID, Long.parseLong(calendarID));
-								calendarEventNotificationBundleSingle.putLong(Constants.BUNDLE_CALENDAR_EVENT_ID, Long.parseLong(eventID));
-								calendarEventNotificationBundleSingle.putInt(Constants.BUNDLE_NOTIFICATION_TYPE, Constants.NOTIFICATION_TYPE_CALENDAR);
-								if(preferences.getBoolean(Constants.CALENDAR_EVENT_TIME_REMINDER_KEY, false)){
-									scheduleCalendarNotification(context, eventStartTime, calendarEventNotificationBundleSingle, "apps.droidnotify.view.calendar." + calendarID + "." + eventID);
+					String calendarID = String.valueOf(calendarEvent.calendarID);
+					String eventID = String.valueOf(calendarEvent.eventID);
+					long eventStartTime = calendarEvent.startTime;
+					long eventEndTime = calendarEvent.endTime;
+					long eventTimeNotificationTime = eventStartTime;
+					long defaultReminderInterval = reminderInterval;
+					if(calendarEvent.allDay){
+						//Special case for all-day events.
+						eventStartTime = eventStartTime  - timezoneOffsetValue;
+						eventEndTime = eventEndTime  - timezoneOffsetValue;
+						eventTimeNotificationTime = eventStartTime + dayOfReminderIntervalAllDay;
+						defaultReminderInterval = reminderIntervalAllDay;
+					}
+					//Schedule the notification for the event time.
+					Bundle calendarEventNotificationBundleSingle = new Bundle();
+					calendarEventNotificationBundleSingle.putString(Constants.BUNDLE_TITLE, calendarEvent.title);
+					calendarEventNotificationBundleSingle.putString(Constants.BUNDLE_MESSAGE_BODY, calendarEvent.title);
+					calendarEventNotificationBundleSingle.putLong(Constants.BUNDLE_CALENDAR_EVENT_START_TIME, eventStartTime);
+					calendarEventNotificationBundleSingle.putLong(Constants.BUNDLE_CALENDAR_EVENT_END_TIME, eventEndTime);
+					calendarEventNotificationBundleSingle.putBoolean(Constants.BUNDLE_ALL_DAY, calendarEvent.allDay);
+					calendarEventNotificationBundleSingle.putString(Constants.BUNDLE_CALENDAR_NAME, calendarEvent.calendarName);
+					calendarEventNotificationBundleSingle.putLong(Constants.BUNDLE_CALENDAR_ID, calendarEvent.calendarID);
+					calendarEventNotificationBundleSingle.putLong(Constants.BUNDLE_CALENDAR_EVENT_ID, calendarEvent.eventID);
+					calendarEventNotificationBundleSingle.putInt(Constants.BUNDLE_NOTIFICATION_TYPE, Constants.NOTIFICATION_TYPE_CALENDAR);
+					if(preferences.getBoolean(Constants.CALENDAR_EVENT_TIME_REMINDER_KEY, false)){
+						addCalendarAlarm(calendarAlarms, calendarEvent, eventTimeNotificationTime, calendarEventNotificationBundleSingle, "apps.droidnotify.view.calendar." + calendarID + "." + eventID);
+					}
+					//Schedule the reminder notification if it is enabled.
+					if(remindersEnabled){
+						String reminderIntentAction = "apps.droidnotify.view.calendar.reminder." + calendarID + "." + eventID;
+						if(useCalendarReminderSettings){
+							if(calendarEvent.hasAlarm){
+								ArrayList<Long> eventReminderTimes = calendarEvent.reminderTimes;
+								if(eventReminderTimes == null || eventReminderTimes.isEmpty()){
+									if (_debug) Log.v(context, "CalendarCommon.readCalendars() No Reminder Time Found! Event ID: " + eventID);
+									continue;
 								}
-								//Schedule the reminder notification if it is enabled.
-								if(preferences.getBoolean(Constants.CALENDAR_REMINDERS_ENABLED_KEY,true)){
-									if(preferences.getBoolean(Constants.CALENDAR_USE_CALENDAR_REMINDER_SETTINGS_KEY,true)){
-										if(hasReminderAlarm){
-											reminderInterval = getCalendarEventReminderTime(context, Long.parseLong(eventID), false);	
-											if(reminderInterval > 0){
-												//Only schedule the event if the current time is before the notification time.
-												if((eventStartTime - reminderInterval) > currentSystemTime){
-													scheduleCalendarNotification(context, eventStartTime - reminderInterval, calendarEventNotificationBundleSingle, "apps.droidnotify.view.calendar.reminder." + calendarID + "." + eventID);
-												}
-											}
-										}
-									}else{
-										//Only schedule the event if the current time is before the notification time.
-										if((eventStartTime - reminderInterval) > currentSystemTime){
-											scheduleCalendarNotification(context, eventStartTime - reminderInterval, calendarEventNotificationBundleSingle, "apps.droidnotify.view.calendar.reminder." + calendarID + "." + eventID);
-										}
+								//The earliest reminder keeps the original intent action, any additional reminders are made unique by their reminder time.
+								for(int i = 0; i < eventReminderTimes.size(); i++){
+									long eventReminderTime = eventReminderTimes.get(i);
+									//Only schedule the event if the current time is before the notification time.
+									if(eventReminderTime > 0 && (eventStartTime - eventReminderTime) > currentSystemTime){
+										addCalendarAlarm(calendarAlarms, calendarEvent, eventStartTime - eventReminderTime, calendarEventNotificationBundleSingle, i == 0 ? reminderIntentAction : reminderIntentAction + "." + eventReminderTime);
 									}
 								}
 							}
+						}else{
+							//Only schedule the event if the current time is before the notification time.
+							if((eventStartTime - defaultReminderInterval) > currentSystemTime){
+								addCalendarAlarm(calendarAlarms, calendarEvent, eventStartTime - defaultReminderInterval, calendarEventNotificationBundleSingle, reminderIntentAction);
+							}
 						}
 					}
-					eventCursor.close();
-				}catch(Exception ex){
-					Log.e(context, "CalendarCommon.readCalendars() EVENT QUERY ERROR: " + ex.toString());						
-					if (_debug) Common.debugReadContentProviderColumns(context, null, Uri.parse(calendarEventContentProvider));
-					if(eventCursor != null){
-						eventCursor.close();
-					}
-					return;
 				}
+				//Only arm the next due alarm, the calendars are read again on every change and after every notification.
+				if(preferences.getBoolean(Constants.CALENDAR_EVENT_DRIVEN_ENABLED_KEY, false)){
+					calendarAlarms = getNextCalendarAlarms(calendarAlarms);
+				}
+				//Only schedule or cancel the alarms that have changed since the last poll.
+				updateCalendarAlarmSchedule(context, calendarAlarms, currentSystemTime);
+			}catch(Exception ex){
+				Log.e(context, "CalendarCommon.readCalendars() SCHEDULE ALARMS ERROR: " + ex.toString());
+				return;
 			}
+			if (_debug) Log.v(context, "CalendarCommon.readCalendars() Polled " + calendarIds.size() + " Calendars In " + (System.currentTimeMillis() - pollStartTime) + " ms");
 		}catch(Exception ex){
 			Log.e(context, "CalendarCommon.readCalendars() ERROR: " + ex.toString());
 			return;
@@ -320,42 +242,31 @@ public class CalendarCommon {
 
 	/**
 	 * Read the phones Calendars and return the information on them.
+	 * The information is cached until the calendars change.
 	 * 
 	 * @param context - Application Context.
 	 * 
 	 * @return String - A string of the available Calendars. Specially formatted string with the Calendar information.
 	 */
-	@SuppressLint("NewApi")
 	public static String getAvailableCalendars(Context context){
 		_debug = Log.getDebug(context);
 		if (_debug) Log.v(context, "CalendarCommon.getAvailableCalendars()");
+		String availableCalendars = _availableCalendars;
+		if(availableCalendars != null){
+			return availableCalendars;
+		}
 		StringBuilder calendarsInfo = new StringBuilder();
 		Cursor cursor = null;
-		String contentProvider = null;
+		CalendarSchema calendarSchema = CalendarSchema.getCalendarSchema();
 		try{
-			int APILevel = Common.getDeviceAPILevel();
 			ContentResolver contentResolver = context.getContentResolver();
-			String calendarIDColumn = null;
-			String calendarDisplayNameColumn = null;
-			String calendarSelectedColumn = null;
-			if(APILevel >= android.os.Build.VERSION_CODES.ICE_CREAM_SANDWICH){
-				contentProvider = CalendarContract.Calendars.CONTENT_URI.toString();
-				calendarIDColumn = CalendarContract.Calendars._ID;
-				calendarDisplayNameColumn = CalendarContract.Events.CALENDAR_DISPLAY_NAME;
-				calendarSelectedColumn = CalendarContract.Events.VISIBLE;
-			}else{
-				contentProvider = "content://com.android.calendar/calendars";
-				calendarIDColumn = Constants.CALENDAR_ID;
-				calendarDisplayNameColumn = Constants.CALENDAR_DISPLAY_NAME;
-				calendarSelectedColumn = Constants.CALENDAR_SELECTED;
-			}
-			if (_debug) Log.v(context, "CalendarCommon.getAvailableCalendars() ContentProvider: " + contentProvider);
-    		final String[] projection = new String[]{calendarIDColumn, calendarDisplayNameColumn, calendarSelectedColumn};
+			if (_debug) Log.v(context, "CalendarCommon.getAvailableCalendars() ContentProvider: " + calendarSchema.getCalendarsUri());
+    		final String[] projection = calendarSchema.getCalendarsProjection();
             final String selection = null;
     		final String[] selectionArgs = null;
     		final String sortOrder = null;
 			cursor = contentResolver.query(
-				Uri.parse(contentProvider), 
+				calendarSchema.getCalendarsUri(), 
 				projection,
 				selection,
 				selectionArgs,
@@ -368,9 +279,9 @@ public class CalendarCommon {
 				long calendarID = -1; 
 				String calendarDisplayName = null;
 				Boolean calendarSelected = true;
-				calendarID = cursor.getLong(cursor.getColumnIndex(calendarIDColumn));
-				calendarDisplayName = cursor.getString(cursor.getColumnIndex(calendarDisplayNameColumn));
-				calendarSelected = !cursor.getString(cursor.getColumnIndex(calendarSelectedColumn)).equals("0");
+				calendarID = cursor.getLong(CalendarSchema.CALENDARS_ID_INDEX);
+				calendarDisplayName = cursor.getString(CalendarSchema.CALENDARS_DISPLAY_NAME_INDEX);
+				calendarSelected = !cursor.getString(CalendarSchema.CALENDARS_SELECTED_INDEX).equals("0");
 				if(calendarSelected){
 					if(!calendarsInfo.toString().equals("")){
 						calendarsInfo.append(",");
@@ -381,7 +292,7 @@ public class CalendarCommon {
 			cursor.close();
 		}catch(Exception ex){
 			Log.e(context, "CalendarCommon.getAvailableCalendars() ERROR: " + ex.toString());
-			if (_debug) Common.debugReadContentProviderColumns(context, null, Uri.parse(contentProvider));
+			if (_debug) Common.debugReadContentProviderColumns(context, null, calendarSchema.getCalendarsUri());
 			if(cursor != null){
 				cursor.close();
 			}
@@ -391,7 +302,9 @@ public class CalendarCommon {
 			if (_debug) Log.v(context, "CalendarCommon.getAvailableCalendars() No Calendars Found.");
 			return null;
 		}else{
-			return calendarsInfo.toString();
+			availableCalendars = calendarsInfo.toString();
+			_availableCalendars = availableCalendars;
+			return availableCalendars;
 		}
 	}
 	
@@ -403,38 +316,22 @@ public class CalendarCommon {
 	 * 
 	 * @return boolean - Returns false if the event was found and has not been dismissed, returns true otherwise.
 	 */
-	@SuppressLint("NewApi")
 	public static boolean isEventDismissed(Context context, long eventID){
 		_debug = Log.getDebug(context);
 		if(_debug) Log.v(context, "CalendarCommon.isEventDismissed() EventID: " + eventID);
 		Cursor cursor = null;
-		String contentProvider = null;
 		try{
 			if(eventID < 0){
 				if(_debug) Log.v(context, "CalendarCommon.isEventDismissed() Event ID < 0. Exiting...");
 				return true;
 			}			
-			int APILevel = Common.getDeviceAPILevel();
-			String eventIDColumn = null;
-			String eventStatusColumn = null;
-			int STATE_DISMISSED = -1;
-			if(APILevel >= android.os.Build.VERSION_CODES.ICE_CREAM_SANDWICH){
-				contentProvider = CalendarContract.CalendarAlerts.CONTENT_URI.toString();
-				eventIDColumn = CalendarContract.CalendarAlerts.EVENT_ID;
-				eventStatusColumn = CalendarContract.CalendarAlerts.STATUS;
-				STATE_DISMISSED = CalendarContract.CalendarAlerts.STATE_DISMISSED;
-			}else{
-				contentProvider = "content://com.android.calendar/calendar_alerts";
-				eventIDColumn = Constants.CALENDAR_ALERT_EVENT_ID;
-				eventStatusColumn = Constants.CALENDAR_ALERT_EVENT_STATUS;
-				STATE_DISMISSED = 2;
-			}
-    		final String[] projection = new String[] { "_id", eventIDColumn, eventStatusColumn};
-			final String selection = eventIDColumn + "=?";
+			CalendarSchema calendarSchema = CalendarSchema.getCalendarSchema();
+    		final String[] projection = calendarSchema.getCalendarAlertsProjection();
+			final String selection = calendarSchema.getCalendarAlertEventIDColumn() + "=?";
 			final String[] selectionArgs = new String[]{String.valueOf(eventID)};
     		final String sortOrder = null;
 				cursor = context.getContentResolver().query(
-						Uri.parse(contentProvider),
+						calendarSchema.getCalendarAlertsUri(),
 						projection,
 						selection, 
 						selectionArgs,
@@ -445,14 +342,14 @@ public class CalendarCommon {
 		    }
 		    int eventStatus = 0;
 		    if(cursor.moveToFirst()){
-		    	eventStatus = cursor.getInt(cursor.getColumnIndex(eventStatusColumn));
+		    	eventStatus = cursor.getInt(CalendarSchema.CALENDAR_ALERTS_STATUS_INDEX);
 		    	if(_debug) Log.v(context, "CalendarCommon.isEventDismissed() Event Found - Status: " + String.valueOf(eventStatus));
 	    	}else{
 	    		if(_debug) Log.v(context, "CalendarCommon.isEventDismissed() Event ID: " + String.valueOf(eventID) + " was not found!  Exiting...");
 	    		return true;
 	    	}
 			cursor.close();
-		    return eventStatus == STATE_DISMISSED ? true : false;
+		    return eventStatus == calendarSchema.getCalendarAlertStateDismissed() ? true : false;
 		}catch(Exception ex){
 			Log.e(context, "CalendarCommon.isEventDismissed() ERROR: " + ex.toString());
     		if(cursor != null){
@@ -468,32 +365,22 @@ public class CalendarCommon {
 	 * 
 	 * @return boolean - Returns true if the event exists, returns false otherwise.
 	 */
-	@SuppressLint("NewApi")
 	public static boolean eventExists(Context context, long eventID){
 		_debug = Log.getDebug(context);
 		if(_debug) Log.v(context, "CalendarCommon.eventExists() EventID: " + eventID);
 		Cursor cursor = null;
-		String contentProvider = null;
 		try{
 			if(eventID < 0){
 				if(_debug) Log.v(context, "CalendarCommon.eventExists() Event ID < 0. Exiting...");
 				return true;
 			}			
-			int APILevel = Common.getDeviceAPILevel();
-			String eventIDColumn = null;
-			if(APILevel >= android.os.Build.VERSION_CODES.ICE_CREAM_SANDWICH){
-				contentProvider = CalendarContract.Events.CONTENT_URI.toString();
-				eventIDColumn = CalendarContract.Events._ID;
-			}else{
-				contentProvider = "content://com.android.calendar/events";
-				eventIDColumn = Constants.CALENDAR_EVENT_ID;
-			}
-    		final String[] projection = new String[] { "_id", eventIDColumn};
-			final String selection = eventIDColumn + "=?";
+			CalendarSchema calendarSchema = CalendarSchema.getCalendarSchema();
+    		final String[] projection = calendarSchema.getEventIDProjection();
+			final String selection = calendarSchema.getEventIDColumn() + "=?";
 			final String[] selectionArgs = new String[]{String.valueOf(eventID)};
     		final String sortOrder = null;
 				cursor = context.getContentResolver().query(
-						Uri.parse(contentProvider),
+						calendarSchema.getEventsUri(),
 						projection,
 						selection, 
 						selectionArgs,
@@ -518,6 +405,51 @@ public class CalendarCommon {
 		}
 	}
 
+	/**
+	 * Get the state of a calendar event that a reminder is about to be displayed for.
+	 * The state is read with a single query and cached until the calendars change.
+	 * 
+	 * @param context - The application context.
+	 * @param eventID - The Event ID that we want to query.
+	 * @param checkDismissed - True if the calendar alerts should be checked to see if the event was dismissed.
+	 * 
+	 * @return int - The state of the event (Constants.CALENDAR_EVENT_STATUS_*).
+	 */
+	public static int getEventStatus(Context context, long eventID, boolean checkDismissed){
+		_debug = Log.getDebug(context);
+		if(_debug) Log.v(context, "CalendarCommon.getEventStatus() EventID: " + eventID);
+		synchronized(_eventStatusCache){
+			Integer cachedEventStatus = _eventStatusCache.get(eventID);
+			if(cachedEventStatus != null){
+				if(_debug) Log.v(context, "CalendarCommon.getEventStatus() Cached Status: " + cachedEventStatus);
+				return cachedEventStatus;
+			}
+		}
+		int eventStatus = Constants.CALENDAR_EVENT_STATUS_ACTIVE;
+		if(checkDismissed){
+			eventStatus = readEventStatus(context, eventID);
+		}else if(!eventExists(context, eventID)){
+			eventStatus = Constants.CALENDAR_EVENT_STATUS_DELETED;
+		}
+		synchronized(_eventStatusCache){
+			if(_eventStatusCache.size() >= EVENT_STATUS_CACHE_SIZE){
+				_eventStatusCache.clear();
+			}
+			_eventStatusCache.put(eventID, eventStatus);
+		}
+		return eventStatus;
+	}
+	
+	/**
+	 * Clear the cached calendar event states.
+	 * This should be called whenever the calendars change.
+	 */
+	public static void clearEventStatusCache(){
+		synchronized(_eventStatusCache){
+			_eventStatusCache.clear();
+		}
+	}
+	
 	/**
 	 * Start the intent to add an event to the calendar app.
 	 * 
@@ -740,8 +672,13 @@ public class CalendarCommon {
 			Intent intent = new Intent(context, CalendarAlarmReceiver.class);
 			intent.setAction(Constants.INTENT_ACTION_CALENDAR_ALARMS);
 			PendingIntent pendingIntent = PendingIntent.getBroadcast(context, 0, intent, 0);
-			long pollingFrequency = Long.parseLong(preferences.getString(Constants.CALENDAR_POLLING_FREQUENCY_KEY, Constants.CALENDAR_POLLING_FREQUENCY_DEFAULT)) * 60 * 1000;
-			alarmManager.setRepeating(AlarmManager.RTC_WAKEUP, alarmStartTime, pollingFrequency, pendingIntent);
+			if(preferences.getBoolean(Constants.CALENDAR_EVENT_DRIVEN_ENABLED_KEY, false)){
+				//Calendar changes trigger a refresh, so polling is only a slow safety net that the system can batch with other alarms.
+				alarmManager.setInexactRepeating(AlarmManager.RTC_WAKEUP, alarmStartTime, AlarmManager.INTERVAL_HALF_DAY, pendingIntent);
+			}else{
+				long pollingFrequency = Long.parseLong(preferences.getString(Constants.CALENDAR_POLLING_FREQUENCY_KEY, Constants.CALENDAR_POLLING_FREQUENCY_DEFAULT)) * 60 * 1000;
+				alarmManager.setRepeating(AlarmManager.RTC_WAKEUP, alarmStartTime, pollingFrequency, pendingIntent);
+			}
 		}catch(Exception ex){
 			Log.e(context, "CalendarCommon.startCalendarAlarmManager() ERROR: " + ex.toString());
 		}
@@ -767,13 +704,101 @@ public class CalendarCommon {
 		}
 	}
 	
+	/**
+	 * Schedule a one time read of the users calendars after a calendar change.
+	 * Rescheduling replaces any pending refresh so that a burst of changes (e.g. a calendar sync) results in a single read.
+	 * 
+	 * @param context - The application context.
+	 */
+	public static void startCalendarRefresh(Context context){
+		_debug = Log.getDebug(context);
+		if (_debug) Log.v(context, "CalendarCommon.startCalendarRefresh()");
+		try{
+			AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+			Intent intent = new Intent(context, CalendarAlarmReceiver.class);
+			intent.setAction(Constants.INTENT_ACTION_CALENDAR_REFRESH);
+			PendingIntent pendingIntent = PendingIntent.getBroadcast(context, 0, intent, 0);
+			alarmManager.set(AlarmManager.RTC_WAKEUP, System.currentTimeMillis() + CALENDAR_REFRESH_DELAY, pendingIntent);
+		}catch(Exception ex){
+			Log.e(context, "CalendarCommon.startCalendarRefresh() ERROR: " + ex.toString());
+		}
+	}
+	
+	/**
+	 * Count a wakeup used to read the users calendars while the event driven calendar refresh is enabled.
+	 * 
+	 * @param context - The application context.
+	 */
+	public static void recordCalendarRefreshWakeup(Context context){
+		try{
+			SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+			SharedPreferences.Editor editor = preferences.edit();
+			if(preferences.getLong(Constants.CALENDAR_REFRESH_WAKEUP_START_TIME_KEY, 0) <= 0){
+				editor.putLong(Constants.CALENDAR_REFRESH_WAKEUP_START_TIME_KEY, System.currentTimeMillis());
+			}
+			editor.putLong(Constants.CALENDAR_REFRESH_WAKEUP_COUNT_KEY, preferences.getLong(Constants.CALENDAR_REFRESH_WAKEUP_COUNT_KEY, 0) + 1);
+			editor.commit();
+		}catch(Exception ex){
+			Log.e(context, "CalendarCommon.recordCalendarRefreshWakeup() ERROR: " + ex.toString());
+		}
+	}
+	
+	/**
+	 * Restart the counting of the calendar refresh wakeups.
+	 * 
+	 * @param context - The application context.
+	 */
+	public static void resetCalendarRefreshWakeups(Context context){
+		try{
+			SharedPreferences.Editor editor = PreferenceManager.getDefaultSharedPreferences(context).edit();
+			editor.putLong(Constants.CALENDAR_REFRESH_WAKEUP_COUNT_KEY, 0);
+			editor.putLong(Constants.CALENDAR_REFRESH_WAKEUP_START_TIME_KEY, System.currentTimeMillis());
+			editor.commit();
+		}catch(Exception ex){
+			Log.e(context, "CalendarCommon.resetCalendarRefreshWakeups() ERROR: " + ex.toString());
+		}
+	}
+	
+	/**
+	 * Describe the number of wakeups per day that the event driven calendar refresh saves compared to polling the calendars.
+	 * 
+	 * @param context - The application context.
+	 * 
+	 * @return String - The summary of the wakeups saved per day.
+	 */
+	public static String getCalendarWakeupsSavedSummary(Context context){
+		try{
+			SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+			if(!preferences.getBoolean(Constants.CALENDAR_EVENT_DRIVEN_ENABLED_KEY, false)){
+				return context.getString(R.string.calendar_wakeups_saved_disabled_summary);
+			}
+			long pollingFrequency = Long.parseLong(preferences.getString(Constants.CALENDAR_POLLING_FREQUENCY_KEY, Constants.CALENDAR_POLLING_FREQUENCY_DEFAULT)) * 60 * 1000;
+			long wakeupCount = preferences.getLong(Constants.CALENDAR_REFRESH_WAKEUP_COUNT_KEY, 0);
+			long startTime = preferences.getLong(Constants.CALENDAR_REFRESH_WAKEUP_START_TIME_KEY, 0);
+			//Measure over at least one hour so that a fresh start does not report a meaningless rate.
+			long elapsedTime = AlarmManager.INTERVAL_HOUR;
+			if(startTime > 0){
+				elapsedTime = Math.max(System.currentTimeMillis() - startTime, AlarmManager.INTERVAL_HOUR);
+			}
+			long pollingWakeupsPerDay = AlarmManager.INTERVAL_DAY / pollingFrequency;
+			long refreshWakeupsPerDay = (wakeupCount * AlarmManager.INTERVAL_DAY) / elapsedTime;
+			return context.getString(R.string.calendar_wakeups_saved_summary, String.valueOf(Math.max(pollingWakeupsPerDay - refreshWakeupsPerDay, 0)), String.valueOf(wakeupCount), String.valueOf(elapsedTime / AlarmManager.INTERVAL_HOUR));
+		}catch(Exception ex){
+			Log.e(context, "CalendarCommon.getCalendarWakeupsSavedSummary() ERROR: " + ex.toString());
+			return null;
+		}
+	}
+	
 	/**
 	 * Format/create the Calendar Event message.
+	 * The formatted messages are cached until the date, time or label preferences, the locale or the time zone change.
 	 * 
 	 * @param context - The application context.
+	 * @param messageTitle - Calendar Event's title.
 	 * @param eventStartTime - Calendar Event's start time.
 	 * @param eventEndTime - Calendar Event's end time.
 	 * @param allDay - Boolean, true if the Calendar Event is all day.
+	 * @param calendarName - The name of the Calendar Event's calendar.
 	 * 
 	 * @return String - Returns the formatted Calendar Event message.
 	 */
@@ -781,6 +806,22 @@ public class CalendarCommon {
 		_debug = Log.getDebug(context);
 		if (_debug) Log.v(context, "CalendarCommon.formatCalendarEventMessage()");
 		SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+		String eventMessageSettings = preferences.getString(Constants.TIME_FORMAT_KEY, Constants.TIME_FORMAT_DEFAULT) + "|" + 
+				preferences.getString(Constants.DATE_FORMAT_KEY, Constants.DATE_FORMAT_DEFAULT) + "|" + 
+				preferences.getBoolean(Constants.CALENDAR_LABELS_KEY, true) + "|" + 
+				Locale.getDefault().toString() + "|" + 
+				TimeZone.getDefault().getID();
+		String eventMessageKey = eventStartTime + "|" + eventEndTime + "|" + allDay + "|" + calendarName + "|" + messageTitle;
+		synchronized(_eventMessageCache){
+			if(!eventMessageSettings.equals(_eventMessageSettings)){
+				_eventMessageCache.clear();
+				_eventMessageSettings = eventMessageSettings;
+			}
+			String cachedFormattedMessage = _eventMessageCache.get(eventMessageKey);
+			if(cachedFormattedMessage != null){
+				return cachedFormattedMessage;
+			}
+		}
 		String formattedMessage = "";
 		Date eventEndDate = new Date(eventEndTime);
 		Date eventStartDate = new Date(eventStartTime);
@@ -816,7 +857,13 @@ public class CalendarCommon {
     	if(preferences.getBoolean(Constants.CALENDAR_LABELS_KEY, true)){
     		formattedMessage = "<b>" + calendarName + "</b><br/>" + formattedMessage;
     	}
-		return formattedMessage.replace("\n", "<br/>").trim();
+    	formattedMessage = formattedMessage.replace("\n", "<br/>").trim();
+		synchronized(_eventMessageCache){
+			if(eventMessageSettings.equals(_eventMessageSettings)){
+				_eventMessageCache.put(eventMessageKey, formattedMessage);
+			}
+		}
+		return formattedMessage;
 	}
 	
 	/**
@@ -844,77 +891,497 @@ public class CalendarCommon {
 		}
 	}
 	
+	/**
+	 * Clear the table of scheduled calendar alarms.
+	 * This forces every calendar event to be read and every calendar alarm to be scheduled again on the next calendar poll.
+	 * 
+	 * @param context - The application context.
+	 */
+	public static void clearCalendarAlarmSchedule(Context context){
+		_debug = Log.getDebug(context);
+		if (_debug) Log.v(context, "CalendarCommon.clearCalendarAlarmSchedule()");
+		clearCalendarCaches();
+		try{
+			context.getContentResolver().delete(DBConstants.CONTENT_URI_CALENDAR_ALARM, null, null);
+		}catch(Exception ex){
+			Log.e(context, "CalendarCommon.clearCalendarAlarmSchedule() ERROR: " + ex.toString());
+		}
+	}
+	
+	/**
+	 * Clear everything that is cached about the calendars.
+	 * This should be called whenever the calendars change.
+	 */
+	public static void clearCalendarCaches(){
+		_availableCalendars = null;
+		clearEventStatusCache();
+		clearCalendarEventCache();
+	}
+	
+	/**
+	 * Clear the cached lookahead window of calendar events.
+	 * This should be called whenever the calendars change.
+	 */
+	public static void clearCalendarEventCache(){
+		synchronized(_lookaheadLock){
+			_lookaheadCalendarEvents = null;
+		}
+	}
+	
 	//================================================================================
 	// Private Methods
 	//================================================================================
 
 	/**
-	 * Get the reminder time in minutes (in milliseconds) for the event ID. Return -1 if none exists.
+	 * Get the upcoming events of the selected calendars within the lookahead window.
+	 * The window is kept in memory between polls. Each poll drops the events that have started and only reads the 
+	 * events that entered the leading edge of the window. The whole window is read again when the calendars change.
 	 * 
-	 * @param eventID - The event ID we want to query.
-	 * @param allDay - Boolean indicating if the event is an all day event or not.
+	 * @param context - Application Context.
+	 * @param calendarIds - The selected calendars, the calendar names keyed by calendar ID.
+	 * @param currentTime - The start of the lookahead window.
+	 * @param lookaheadTime - The length of the lookahead window.
+	 * @param readReminderTimes - True if the reminder times of the events should be read.
 	 * 
-	 * @return long - The number of minutes in milliseconds of the reminder time or -1 if none found.
+	 * @return ArrayList<CalendarEvent> - The events in the lookahead window, sorted by start time, or null if the calendar events could not be read.
 	 */
-	@SuppressLint("NewApi")
-	private static long getCalendarEventReminderTime(Context context, long eventID, boolean allDay){
-		if (_debug) Log.v(context, "CalendarCommon.getCalendarEventReminderTime() EventID: " + eventID + " AllDay: " + allDay);
+	private static ArrayList<CalendarEvent> getLookaheadCalendarEvents(Context context, HashMap<String, String> calendarIds, long currentTime, long lookaheadTime, boolean readReminderTimes){
+		synchronized(_lookaheadLock){
+			long queryStartTime = currentTime;
+			long queryEndTime = currentTime + lookaheadTime;
+			if(_lookaheadCalendarEvents == null || _lookaheadTime != lookaheadTime || _lookaheadEndTime < currentTime || !calendarIds.equals(_lookaheadCalendars)){
+				_lookaheadCalendarEvents = new ArrayList<CalendarEvent>();
+			}else{
+				//Drop the events that have started.
+				int expiredEventCount = 0;
+				while(expiredEventCount < _lookaheadCalendarEvents.size() && _lookaheadCalendarEvents.get(expiredEventCount).startTime < currentTime){
+					expiredEventCount++;
+				}
+				_lookaheadCalendarEvents.subList(0, expiredEventCount).clear();
+				queryStartTime = _lookaheadEndTime + 1;
+			}
+			if(queryStartTime <= queryEndTime){
+				ArrayList<CalendarEvent> calendarEvents = getCalendarEvents(context, calendarIds, queryStartTime, queryEndTime);
+				if(calendarEvents == null){
+					_lookaheadCalendarEvents = null;
+					return null;
+				}
+				if (_debug) Log.v(context, "CalendarCommon.getLookaheadCalendarEvents() Cached Events: " + _lookaheadCalendarEvents.size() + " New Events: " + calendarEvents.size());
+				_lookaheadCalendarEvents.addAll(calendarEvents);
+			}
+			_lookaheadCalendars = new HashMap<String, String>(calendarIds);
+			_lookaheadTime = lookaheadTime;
+			_lookaheadEndTime = queryEndTime;
+			//Read the reminder times of the events that haven't been read yet with a single query.
+			if(readReminderTimes){
+				ArrayList<Long> reminderEventIDs = new ArrayList<Long>();
+				for(CalendarEvent calendarEvent : _lookaheadCalendarEvents){
+					if(calendarEvent.hasAlarm && calendarEvent.reminderTimes == null){
+						reminderEventIDs.add(calendarEvent.eventID);
+					}
+				}
+				HashMap<Long, ArrayList<Long>> calendarEventReminderTimes = getCalendarEventReminderTimes(context, reminderEventIDs);
+				if(calendarEventReminderTimes != null){
+					for(CalendarEvent calendarEvent : _lookaheadCalendarEvents){
+						if(calendarEvent.hasAlarm && calendarEvent.reminderTimes == null){
+							ArrayList<Long> eventReminderTimes = calendarEventReminderTimes.get(calendarEvent.eventID);
+							calendarEvent.reminderTimes = eventReminderTimes == null ? new ArrayList<Long>() : eventReminderTimes;
+						}
+					}
+				}
+			}
+			return new ArrayList<CalendarEvent>(_lookaheadCalendarEvents);
+		}
+	}
+	
+	/**
+	 * Read the events of the selected calendars that start within a time range.
+	 * 
+	 * @param context - Application Context.
+	 * @param calendarIds - The selected calendars, the calendar names keyed by calendar ID.
+	 * @param queryStartTime - The earliest event start time.
+	 * @param queryEndTime - The latest event start time.
+	 * 
+	 * @return ArrayList<CalendarEvent> - The events sorted by start time, or null if the calendar events could not be read.
+	 */
+	private static ArrayList<CalendarEvent> getCalendarEvents(Context context, HashMap<String, String> calendarIds, long queryStartTime, long queryEndTime){
+		CalendarSchema calendarSchema = CalendarSchema.getCalendarSchema();
+		if (_debug) Log.v(context, "CalendarCommon.getCalendarEvents() CalendarEventContentProvider URI String: " + calendarSchema.getEventsUri());
+		String eventStartTimeColumn = calendarSchema.getEventStartTimeColumn();
+		int calendarCount = calendarIds.size();
+		final String[] selectionArgs = new String[calendarCount + 2];
+		int selectionArgsIndex = 0;
+		for(String selectedCalendarID : calendarIds.keySet()){
+			selectionArgs[selectionArgsIndex++] = selectedCalendarID;
+		}
+		selectionArgs[selectionArgsIndex++] = String.valueOf(queryStartTime);
+		selectionArgs[selectionArgsIndex++] = String.valueOf(queryEndTime);
+		final String selection = getInSelection(calendarSchema.getEventCalendarIDColumn(), calendarCount) + " AND " + eventStartTimeColumn + ">=? AND " + eventStartTimeColumn + "<=?";
+		final String sortOrder = eventStartTimeColumn + " ASC";
+		Cursor eventCursor = null;
+		try{
+			eventCursor = context.getContentResolver().query(
+					calendarSchema.getEventsUri(),
+					calendarSchema.getEventsProjection(),
+					selection,
+					selectionArgs,
+					sortOrder);
+			if(eventCursor ==  null){
+				Log.e(context, "CalendarCommon.getCalendarEvents() READ CALENDAR EVENTS: Event cursor is null. Exiting...");
+				return null;
+			}
+			ArrayList<CalendarEvent> calendarEvents = new ArrayList<CalendarEvent>();
+			while(eventCursor.moveToNext()){
+				CalendarEvent calendarEvent = new CalendarEvent();
+				calendarEvent.calendarID = eventCursor.getLong(CalendarSchema.EVENTS_CALENDAR_ID_INDEX);
+				calendarEvent.calendarName = calendarIds.get(String.valueOf(calendarEvent.calendarID));
+				calendarEvent.eventID = eventCursor.getLong(CalendarSchema.EVENTS_ID_INDEX);
+				calendarEvent.title = eventCursor.getString(CalendarSchema.EVENTS_TITLE_INDEX);
+				calendarEvent.startTime = eventCursor.getLong(CalendarSchema.EVENTS_START_TIME_INDEX);
+				calendarEvent.endTime = eventCursor.getLong(CalendarSchema.EVENTS_END_TIME_INDEX);
+				calendarEvent.allDay = !eventCursor.getString(CalendarSchema.EVENTS_ALL_DAY_INDEX).equals("0");
+				calendarEvent.hasAlarm = !eventCursor.getString(CalendarSchema.EVENTS_HAS_ALARM_INDEX).equals("0");
+				if (_debug) Log.v(context, "CalendarCommon.getCalendarEvents() Calendar ID: " + calendarEvent.calendarID + 
+						" Event ID: " + calendarEvent.eventID + 
+						" Event Title: " + calendarEvent.title + 
+						" Event Begin: " + calendarEvent.startTime + 
+						" Event End: " + calendarEvent.endTime + 
+						" Event All Day: " + calendarEvent.allDay + 
+						" Event Has Reminder Alarm: " + calendarEvent.hasAlarm);
+				calendarEvents.add(calendarEvent);
+			}
+			eventCursor.close();
+			return calendarEvents;
+		}catch(Exception ex){
+			Log.e(context, "CalendarCommon.getCalendarEvents() EVENT QUERY ERROR: " + ex.toString());
+			if (_debug) Common.debugReadContentProviderColumns(context, null, calendarSchema.getEventsUri());
+			if(eventCursor != null){
+				eventCursor.close();
+			}
+			return null;
+		}
+	}
+	
+	/**
+	 * Read the state of a calendar event from its calendar alert.
+	 * The calendar alerts are joined with the events, so a single query tells if the event was dismissed or deleted.
+	 * 
+	 * @param context - The application context.
+	 * @param eventID - The Event ID that we want to query.
+	 * 
+	 * @return int - The state of the event (Constants.CALENDAR_EVENT_STATUS_*).
+	 */
+	private static int readEventStatus(Context context, long eventID){
+		if(eventID < 0){
+			if(_debug) Log.v(context, "CalendarCommon.readEventStatus() Event ID < 0. Exiting...");
+			return Constants.CALENDAR_EVENT_STATUS_DISMISSED;
+		}
 		Cursor cursor = null;
-		String contentProvider = null;
 		try{
-			int APILevel = Common.getDeviceAPILevel();
-			String eventIDColumn = null;
-			String reminderTimeInMinutesColumn = null;
-			int defaultEventReminderMinutes = 15;
-			if(APILevel >= android.os.Build.VERSION_CODES.ICE_CREAM_SANDWICH){
-				contentProvider = CalendarContract.Reminders.CONTENT_URI.toString();
-				eventIDColumn = CalendarContract.Reminders.EVENT_ID;
-				reminderTimeInMinutesColumn = CalendarContract.Reminders.MINUTES;
-				defaultEventReminderMinutes = 15; //TODO - Where Is This Stored Value???
-			}else{
-				contentProvider = "content://com.android.calendar/reminders";
-				eventIDColumn = Constants.CALENDAR_REMINDER_EVENT_ID;
-				reminderTimeInMinutesColumn = Constants.CALENDAR_REMINDER_MINUTES;
-				defaultEventReminderMinutes = 15;
-			}
-			if (_debug) Log.v(context, "CalendarCommon.getCalendarEventReminderTime() ContentProvider: " + contentProvider);
-    		final String[] projection = new String[]{eventIDColumn, reminderTimeInMinutesColumn};
-            final String selection = eventIDColumn + "=?";
-    		final String[] selectionArgs = new String[] {String.valueOf(eventID)};
+			CalendarSchema calendarSchema = CalendarSchema.getCalendarSchema();
+			cursor = context.getContentResolver().query(
+					calendarSchema.getCalendarAlertsUri(),
+					calendarSchema.getCalendarEventStatusProjection(),
+					calendarSchema.getCalendarAlertEventIDColumn() + "=?", 
+					new String[]{String.valueOf(eventID)},
+					null);
+		    if(cursor == null){
+		    	if(_debug) Log.v(context, "CalendarCommon.readEventStatus() Currsor is null. Exiting...");
+		    	return Constants.CALENDAR_EVENT_STATUS_DISMISSED;
+		    }
+		    int eventStatus = Constants.CALENDAR_EVENT_STATUS_DISMISSED;
+		    if(cursor.moveToFirst()){
+		    	if(cursor.getInt(CalendarSchema.CALENDAR_ALERTS_DELETED_INDEX) != 0){
+		    		eventStatus = Constants.CALENDAR_EVENT_STATUS_DELETED;
+		    	}else if(cursor.getInt(CalendarSchema.CALENDAR_ALERTS_STATUS_INDEX) != calendarSchema.getCalendarAlertStateDismissed()){
+		    		eventStatus = Constants.CALENDAR_EVENT_STATUS_ACTIVE;
+		    	}
+		    	if(_debug) Log.v(context, "CalendarCommon.readEventStatus() Event Found - Status: " + eventStatus);
+		    }else{
+	    		if(_debug) Log.v(context, "CalendarCommon.readEventStatus() Event ID: " + String.valueOf(eventID) + " was not found!");
+		    }
+			cursor.close();
+			return eventStatus;
+		}catch(Exception ex){
+			//Fall back to the separate queries if the calendar alerts can't be joined with the events on this device.
+			Log.e(context, "CalendarCommon.readEventStatus() ERROR: " + ex.toString());
+    		if(cursor != null){
+				cursor.close();
+			}
+    		if(isEventDismissed(context, eventID)){
+    			return Constants.CALENDAR_EVENT_STATUS_DISMISSED;
+    		}
+    		return eventExists(context, eventID) ? Constants.CALENDAR_EVENT_STATUS_ACTIVE : Constants.CALENDAR_EVENT_STATUS_DELETED;
+		}
+	}
+	
+	/**
+	 * Get the reminder times (in milliseconds) for a list of event IDs using a single query.
+	 * Events can have more than one reminder, the reminder times are sorted from the earliest reminder to the latest.
+	 * 
+	 * @param context - Application Context.
+	 * @param eventIDs - The event IDs we want to query.
+	 * 
+	 * @return HashMap<Long, ArrayList<Long>> - The reminder times keyed by event ID, or null if the reminders could not be read. Events with no reminders are not included.
+	 */
+	private static HashMap<Long, ArrayList<Long>> getCalendarEventReminderTimes(Context context, ArrayList<Long> eventIDs){
+		if (_debug) Log.v(context, "CalendarCommon.getCalendarEventReminderTimes() Event Count: " + eventIDs.size());
+		HashMap<Long, ArrayList<Long>> calendarEventReminderTimes = new HashMap<Long, ArrayList<Long>>();
+		if(eventIDs.isEmpty()){
+			return calendarEventReminderTimes;
+		}
+		Cursor cursor = null;
+		CalendarSchema calendarSchema = CalendarSchema.getCalendarSchema();
+		try{
+			int defaultEventReminderMinutes = calendarSchema.getDefaultReminderMinutes();
+			if (_debug) Log.v(context, "CalendarCommon.getCalendarEventReminderTimes() ContentProvider: " + calendarSchema.getRemindersUri());
+    		final String[] projection = calendarSchema.getRemindersProjection();
+    		final String[] selectionArgs = new String[eventIDs.size()];
+    		for(int i = 0; i < selectionArgs.length; i++){
+    			selectionArgs[i] = String.valueOf(eventIDs.get(i));
+    		}
+            final String selection = getInSelection(calendarSchema.getReminderEventIDColumn(), selectionArgs.length);
     		final String sortOrder = null;
 			cursor = context.getContentResolver().query(
-				Uri.parse(contentProvider), 						
+				calendarSchema.getRemindersUri(), 						
 				projection,
 				selection,
 				selectionArgs,
 				sortOrder);
 			if(cursor ==  null){
-				Log.e(context, "CalendarCommon.getCalendarEventReminderTime() Cursor is null. Exiting...");
-				return -1;
+				Log.e(context, "CalendarCommon.getCalendarEventReminderTimes() Cursor is null. Exiting...");
+				return null;
 			}
-			if(cursor.moveToFirst()){
-				int reminderTimeInMinutes = cursor.getInt(cursor.getColumnIndex(reminderTimeInMinutesColumn));
-				if (_debug) Log.v(context, "CalendarCommon.getCalendarEventReminderTime() Reminder Time (minutes): " + reminderTimeInMinutes);
+			while(cursor.moveToNext()){
+				long eventID = cursor.getLong(CalendarSchema.REMINDERS_EVENT_ID_INDEX);
+				int reminderTimeInMinutes = cursor.getInt(CalendarSchema.REMINDERS_MINUTES_INDEX);
+				if (_debug) Log.v(context, "CalendarCommon.getCalendarEventReminderTimes() Event ID: " + eventID + " Reminder Time (minutes): " + reminderTimeInMinutes);
 				if(reminderTimeInMinutes == CalendarContract.Reminders.MINUTES_DEFAULT){
 					//Use SystemDefault Reminder Time
 					reminderTimeInMinutes = defaultEventReminderMinutes;
 				}
+				Long reminderTime = Long.valueOf(reminderTimeInMinutes * 60L * 1000L);
+				ArrayList<Long> eventReminderTimes = calendarEventReminderTimes.get(eventID);
+				if(eventReminderTimes == null){
+					eventReminderTimes = new ArrayList<Long>();
+					calendarEventReminderTimes.put(eventID, eventReminderTimes);
+				}
+				if(!eventReminderTimes.contains(reminderTime)){
+					eventReminderTimes.add(reminderTime);
+				}
+			}
+			cursor.close();
+			for(ArrayList<Long> eventReminderTimes : calendarEventReminderTimes.values()){
+				Collections.sort(eventReminderTimes, Collections.reverseOrder());
+			}
+			return calendarEventReminderTimes;
+		}catch(Exception ex){
+			Log.e(context, "CalendarCommon.getCalendarEventReminderTimes() ERROR: " + ex.toString());
+			if (_debug) Common.debugReadContentProviderColumns(context, null, calendarSchema.getRemindersUri());
+			if(cursor != null){
 				cursor.close();
-				return reminderTimeInMinutes * 60 * 1000;
-			}else{
-				if (_debug) Log.v(context, "CalendarCommon.getCalendarEventReminderTime() No Reminder Time Found!");
+			}
+			return null;
+		}
+	}
+	
+	/**
+	 * Build a "column IN (?,?,...)" selection string.
+	 * 
+	 * @param column - The column name.
+	 * @param argumentCount - The number of selection arguments.
+	 * 
+	 * @return String - The selection string.
+	 */
+	private static String getInSelection(String column, int argumentCount){
+		StringBuilder selection = new StringBuilder(column.length() + 6 + (argumentCount * 2));
+		selection.append(column).append(" IN (");
+		for(int i = 0; i < argumentCount; i++){
+			if(i > 0){
+				selection.append(",");
+			}
+			selection.append("?");
+		}
+		return selection.append(")").toString();
+	}
+	
+	/**
+	 * Add an alarm to the list of calendar alarms that should be scheduled.
+	 * 
+	 * @param calendarAlarms - The calendar alarms keyed by intent action.
+	 * @param calendarEvent - The Calendar Event the alarm is for.
+	 * @param alarmTime - Time the alarm should be scheduled.
+	 * @param calendarEventNotificationBundleSingle - The notification bundle of the Calendar Event.
+	 * @param intentAction - The intent action of the alarm.
+	 */
+	private static void addCalendarAlarm(HashMap<String, CalendarAlarm> calendarAlarms, CalendarEvent calendarEvent, long alarmTime, Bundle calendarEventNotificationBundleSingle, String intentAction){
+		CalendarAlarm calendarAlarm = new CalendarAlarm();
+		calendarAlarm.action = intentAction;
+		calendarAlarm.eventID = calendarEvent.eventID;
+		calendarAlarm.eventStartTime = calendarEvent.startTime;
+		calendarAlarm.alarmTime = alarmTime;
+		calendarAlarm.hash = (calendarEvent.title + "|" + calendarEvent.calendarName + "|" + calendarEvent.startTime + "|" + calendarEvent.endTime + "|" + calendarEvent.allDay).hashCode();
+		calendarAlarm.bundle = calendarEventNotificationBundleSingle;
+		calendarAlarms.put(intentAction, calendarAlarm);
+	}
+	
+	/**
+	 * Read the calendar alarms that are currently scheduled.
+	 * 
+	 * @param context - Application Context.
+	 * 
+	 * @return HashMap<String, CalendarAlarm> - The scheduled calendar alarms keyed by intent action or null if the table could not be read.
+	 */
+	private static HashMap<String, CalendarAlarm> getScheduledCalendarAlarms(Context context){
+		Cursor cursor = null;
+		try{
+			final String[] projection = new String[]{DBConstants.COLUMN_ACTION, DBConstants.COLUMN_EVENT_ID, DBConstants.COLUMN_EVENT_START, DBConstants.COLUMN_ALARM_TIME, DBConstants.COLUMN_HASH};
+			cursor = context.getContentResolver().query(
+					DBConstants.CONTENT_URI_CALENDAR_ALARM,
+					projection,
+					null,
+					null,
+					null);
+			if(cursor == null){
+				Log.e(context, "CalendarCommon.getScheduledCalendarAlarms() Cursor is null. Exiting...");
+				return null;
+			}
+			HashMap<String, CalendarAlarm> scheduledCalendarAlarms = new HashMap<String, CalendarAlarm>();
+			while(cursor.moveToNext()){
+				CalendarAlarm calendarAlarm = new CalendarAlarm();
+				calendarAlarm.action = cursor.getString(0);
+				calendarAlarm.eventID = cursor.getLong(1);
+				calendarAlarm.eventStartTime = cursor.getLong(2);
+				calendarAlarm.alarmTime = cursor.getLong(3);
+				calendarAlarm.hash = cursor.getInt(4);
+				scheduledCalendarAlarms.put(calendarAlarm.action, calendarAlarm);
 			}
 			cursor.close();
-			return -1;
+			return scheduledCalendarAlarms;
 		}catch(Exception ex){
-			Log.e(context, "CalendarCommon.getCalendarEventReminderTime() ERROR: " + ex.toString());
-			if (_debug) Common.debugReadContentProviderColumns(context, null, Uri.parse(contentProvider));
+			Log.e(context, "CalendarCommon.getScheduledCalendarAlarms() ERROR: " + ex.toString());
 			if(cursor != null){
 				cursor.close();
 			}
-			return -1;
+			return null;
 		}
-	}	
+	}
+	
+	/**
+	 * Get the calendar alarms that are due first.
+	 * 
+	 * @param calendarAlarms - The calendar alarms that should be scheduled, keyed by intent action.
+	 * 
+	 * @return HashMap<String, CalendarAlarm> - The calendar alarms with the earliest alarm time, keyed by intent action.
+	 */
+	private static HashMap<String, CalendarAlarm> getNextCalendarAlarms(HashMap<String, CalendarAlarm> calendarAlarms){
+		HashMap<String, CalendarAlarm> nextCalendarAlarms = new HashMap<String, CalendarAlarm>();
+		long nextAlarmTime = Long.MAX_VALUE;
+		for(CalendarAlarm calendarAlarm : calendarAlarms.values()){
+			if(calendarAlarm.alarmTime < nextAlarmTime){
+				nextAlarmTime = calendarAlarm.alarmTime;
+				nextCalendarAlarms.clear();
+			}
+			if(calendarAlarm.alarmTime == nextAlarmTime){
+				nextCalendarAlarms.put(calendarAlarm.action, calendarAlarm);
+			}
+		}
+		return nextCalendarAlarms;
+	}
+	
+	/**
+	 * Schedule the calendar alarms that are new or have changed and cancel the ones that are no longer needed.
+	 * An unchanged calendar results in no AlarmManager calls.
+	 * 
+	 * @param context - Application Context.
+	 * @param calendarAlarms - The calendar alarms that should be scheduled, keyed by intent action.
+	 * @param currentSystemTime - The current time.
+	 */
+	private static void updateCalendarAlarmSchedule(Context context, HashMap<String, CalendarAlarm> calendarAlarms, long currentSystemTime){
+		ContentResolver contentResolver = context.getContentResolver();
+		HashMap<String, CalendarAlarm> scheduledCalendarAlarms = getScheduledCalendarAlarms(context);
+		int scheduledCount = 0;
+		int cancelledCount = 0;
+		for(CalendarAlarm calendarAlarm : calendarAlarms.values()){
+			CalendarAlarm scheduledCalendarAlarm = scheduledCalendarAlarms == null ? null : scheduledCalendarAlarms.remove(calendarAlarm.action);
+			if(scheduledCalendarAlarm != null && scheduledCalendarAlarm.alarmTime == calendarAlarm.alarmTime && scheduledCalendarAlarm.hash == calendarAlarm.hash){
+				continue;
+			}
+			if(scheduledCalendarAlarm != null && scheduledCalendarAlarm.hash != calendarAlarm.hash){
+				//The event details changed. The old PendingIntent would otherwise be reused with its old extras.
+				Common.cancelAlarm(context, CalendarNotificationAlarmReceiver.class, calendarAlarm.action);
+			}
+			scheduleCalendarNotification(context, calendarAlarm.alarmTime, calendarAlarm.bundle, calendarAlarm.action);
+			scheduledCount++;
+			if(scheduledCalendarAlarms == null){
+				continue;
+			}
+			try{
+				ContentValues contentValues = new ContentValues();
+				contentValues.put(DBConstants.COLUMN_EVENT_ID, calendarAlarm.eventID);
+				contentValues.put(DBConstants.COLUMN_EVENT_START, calendarAlarm.eventStartTime);
+				contentValues.put(DBConstants.COLUMN_ALARM_TIME, calendarAlarm.alarmTime);
+				contentValues.put(DBConstants.COLUMN_HASH, calendarAlarm.hash);
+				if(scheduledCalendarAlarm == null){
+					contentValues.put(DBConstants.COLUMN_ACTION, calendarAlarm.action);
+					contentResolver.insert(DBConstants.CONTENT_URI_CALENDAR_ALARM, contentValues);
+				}else{
+					contentResolver.update(DBConstants.CONTENT_URI_CALENDAR_ALARM, contentValues, DBConstants.COLUMN_ACTION + "=?", new String[]{calendarAlarm.action});
+				}
+			}catch(Exception ex){
+				Log.e(context, "CalendarCommon.updateCalendarAlarmSchedule() SAVE ERROR: " + ex.toString());
+			}
+		}
+		if(scheduledCalendarAlarms != null && !scheduledCalendarAlarms.isEmpty()){
+			ArrayList<String> removedActions = new ArrayList<String>();
+			for(CalendarAlarm scheduledCalendarAlarm : scheduledCalendarAlarms.values()){
+				if(scheduledCalendarAlarm.alarmTime <= currentSystemTime){
+					//This alarm has already gone off.
+					removedActions.add(scheduledCalendarAlarm.action);
+				}else if(scheduledCalendarAlarm.eventStartTime > currentSystemTime){
+					//The event should have been returned by the query, so it was deleted, moved or its calendar or reminder was removed.
+					Common.cancelAlarm(context, CalendarNotificationAlarmReceiver.class, scheduledCalendarAlarm.action);
+					removedActions.add(scheduledCalendarAlarm.action);
+					cancelledCount++;
+				}
+			}
+			if(!removedActions.isEmpty()){
+				try{
+					contentResolver.delete(DBConstants.CONTENT_URI_CALENDAR_ALARM, getInSelection(DBConstants.COLUMN_ACTION, removedActions.size()), removedActions.toArray(new String[removedActions.size()]));
+				}catch(Exception ex){
+					Log.e(context, "CalendarCommon.updateCalendarAlarmSchedule() DELETE ERROR: " + ex.toString());
+				}
+			}
+		}
+		if (_debug) Log.v(context, "CalendarCommon.updateCalendarAlarmSchedule() Alarms Scheduled: " + scheduledCount + " Alarms Cancelled: " + cancelledCount + " Alarms Unchanged: " + (calendarAlarms.size() - scheduledCount));
+	}
+	
+	/**
+	 * A Calendar Event as read from the calendar content provider.
+	 */
+	private static class CalendarEvent {
+		public long calendarID;
+		public String calendarName;
+		public long eventID;
+		public String title;
+		public long startTime;
+		public long endTime;
+		public boolean allDay;
+		public boolean hasAlarm;
+		public ArrayList<Long> reminderTimes;
+	}
+	
+	/**
+	 * A scheduled Calendar Event notification alarm.
+	 */
+	private static class CalendarAlarm {
+		public String action;
+		public long eventID;
+		public long eventStartTime;
+		public long alarmTime;
+		public int hash;
+		public Bundle bundle;
+	}
 	
 	/**
 	 * Schedule an alarm that will trigger a Notification for a Calendar Event.
@@ -74,7 +74,13 @@ public class CalendarPreferenceActivity extends PreferenceActivity implements On
 		}else if(key.equals(Constants.CALENDAR_POLLING_FREQUENCY_KEY)){
 			//The polling time for the calendars was changed. Run the alarm manager with the updated polling time.
 			startCalendarAlarmManager(SystemClock.currentThreadTimeMillis() + (10 * 1000));
+		}else if(key.equals(Constants.CALENDAR_EVENT_DRIVEN_ENABLED_KEY)){
+			//Switch between polling and the event driven refresh and read the calendars again to arm the alarms for the new mode.
+			CalendarCommon.resetCalendarRefreshWakeups(_context);
+			startCalendarAlarmManager(SystemClock.currentThreadTimeMillis() + (10 * 1000));
 		}else if(key.equals(Constants.CALENDAR_USE_CALENDAR_REMINDER_SETTINGS_KEY)){
+			//The cached event states depend on whether the calendar reminder settings are used.
+			CalendarCommon.clearEventStatusCache();
 			updateReminderSettings();
 		}
 	}
@@ -208,6 +214,8 @@ public class CalendarPreferenceActivity extends PreferenceActivity implements On
 	     * @param params
 	     */
 	    protected Void doInBackground(Void... params) {
+	    	//A manual refresh schedules every calendar alarm again.
+	    	CalendarCommon.clearCalendarAlarmSchedule(_context);
 			CalendarCommon.readCalendars(_context);
 	    	return null;
 	    }
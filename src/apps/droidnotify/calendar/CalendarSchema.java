@@ -0,0 +1,330 @@
+package apps.droidnotify.calendar;
+
+import android.annotation.SuppressLint;
+import android.net.Uri;
+import android.provider.CalendarContract;
+
+import apps.droidnotify.common.Common;
+import apps.droidnotify.common.Constants;
+
+/**
+ * The calendar content provider URIs, columns and projections for the device.
+ * 
+ * The schema is resolved once per process from the device API level.
+ * The column index constants refer to the positions of the columns in the matching projection.
+ * 
+ * @author Camille Svigny
+ */
+public class CalendarSchema {
+
+	//================================================================================
+    // Properties
+    //================================================================================
+
+	public static final int CALENDARS_ID_INDEX = 0;
+	public static final int CALENDARS_DISPLAY_NAME_INDEX = 1;
+	public static final int CALENDARS_SELECTED_INDEX = 2;
+
+	public static final int EVENTS_CALENDAR_ID_INDEX = 0;
+	public static final int EVENTS_ID_INDEX = 1;
+	public static final int EVENTS_TITLE_INDEX = 2;
+	public static final int EVENTS_START_TIME_INDEX = 3;
+	public static final int EVENTS_END_TIME_INDEX = 4;
+	public static final int EVENTS_ALL_DAY_INDEX = 5;
+	public static final int EVENTS_HAS_ALARM_INDEX = 6;
+
+	public static final int REMINDERS_EVENT_ID_INDEX = 0;
+	public static final int REMINDERS_MINUTES_INDEX = 1;
+
+	public static final int CALENDAR_ALERTS_EVENT_ID_INDEX = 0;
+	public static final int CALENDAR_ALERTS_STATUS_INDEX = 1;
+	public static final int CALENDAR_ALERTS_DELETED_INDEX = 2;
+
+	private static volatile CalendarSchema _calendarSchema = null;
+
+	private boolean _calendarContract = false;
+	private Uri _calendarsUri = null;
+	private String[] _calendarsProjection = null;
+	private Uri _eventsUri = null;
+	private String _eventIDColumn = null;
+	private String _eventCalendarIDColumn = null;
+	private String _eventStartTimeColumn = null;
+	private String[] _eventsProjection = null;
+	private String[] _eventIDProjection = null;
+	private Uri _remindersUri = null;
+	private String _reminderEventIDColumn = null;
+	private String[] _remindersProjection = null;
+	private int _defaultReminderMinutes = 15;
+	private Uri _calendarAlertsUri = null;
+	private String _calendarAlertEventIDColumn = null;
+	private String[] _calendarAlertsProjection = null;
+	private String[] _calendarEventStatusProjection = null;
+	private int _calendarAlertStateDismissed = -1;
+
+	//================================================================================
+	// Constructors
+	//================================================================================
+
+	/**
+	 * CalendarSchema constructor.
+	 * 
+	 * @param APILevel - The API level of the device.
+	 */
+	public CalendarSchema(int APILevel){
+		if(APILevel >= android.os.Build.VERSION_CODES.ICE_CREAM_SANDWICH){
+			initCalendarContractSchema();
+		}else{
+			initLegacySchema();
+		}
+	}
+
+	//================================================================================
+	// Accessors
+	//================================================================================
+
+	/**
+	 * Get the calendar schema of this device, resolving it on first use.
+	 * 
+	 * @return CalendarSchema - The calendar schema of this device.
+	 */
+	public static CalendarSchema getCalendarSchema(){
+		CalendarSchema calendarSchema = _calendarSchema;
+		if(calendarSchema == null){
+			calendarSchema = new CalendarSchema(Common.getDeviceAPILevel());
+			_calendarSchema = calendarSchema;
+		}
+		return calendarSchema;
+	}
+
+	/**
+	 * Get the calendarContract property.
+	 * 
+	 * @return boolean - True if the schema is the public CalendarContract schema.
+	 */
+	public boolean isCalendarContract(){
+		return _calendarContract;
+	}
+
+	/**
+	 * Get the calendarsUri property.
+	 * 
+	 * @return Uri - The calendars content provider URI.
+	 */
+	public Uri getCalendarsUri(){
+		return _calendarsUri;
+	}
+
+	/**
+	 * Get the calendarsProjection property.
+	 * 
+	 * @return String[] - The calendar ID, display name and selected columns.
+	 */
+	public String[] getCalendarsProjection(){
+		return _calendarsProjection;
+	}
+
+	/**
+	 * Get the eventsUri property.
+	 * 
+	 * @return Uri - The events content provider URI.
+	 */
+	public Uri getEventsUri(){
+		return _eventsUri;
+	}
+
+	/**
+	 * Get the eventIDColumn property.
+	 * 
+	 * @return String - The event ID column.
+	 */
+	public String getEventIDColumn(){
+		return _eventIDColumn;
+	}
+
+	/**
+	 * Get the eventCalendarIDColumn property.
+	 * 
+	 * @return String - The event calendar ID column.
+	 */
+	public String getEventCalendarIDColumn(){
+		return _eventCalendarIDColumn;
+	}
+
+	/**
+	 * Get the eventStartTimeColumn property.
+	 * 
+	 * @return String - The event start time column.
+	 */
+	public String getEventStartTimeColumn(){
+		return _eventStartTimeColumn;
+	}
+
+	/**
+	 * Get the eventsProjection property.
+	 * 
+	 * @return String[] - The event columns read when scheduling the calendar alarms.
+	 */
+	public String[] getEventsProjection(){
+		return _eventsProjection;
+	}
+
+	/**
+	 * Get the eventIDProjection property.
+	 * 
+	 * @return String[] - The event ID column only.
+	 */
+	public String[] getEventIDProjection(){
+		return _eventIDProjection;
+	}
+
+	/**
+	 * Get the remindersUri property.
+	 * 
+	 * @return Uri - The reminders content provider URI.
+	 */
+	public Uri getRemindersUri(){
+		return _remindersUri;
+	}
+
+	/**
+	 * Get the reminderEventIDColumn property.
+	 * 
+	 * @return String - The reminder event ID column.
+	 */
+	public String getReminderEventIDColumn(){
+		return _reminderEventIDColumn;
+	}
+
+	/**
+	 * Get the remindersProjection property.
+	 * 
+	 * @return String[] - The reminder event ID and minutes columns.
+	 */
+	public String[] getRemindersProjection(){
+		return _remindersProjection;
+	}
+
+	/**
+	 * Get the defaultReminderMinutes property.
+	 * 
+	 * @return int - The reminder time used when an event uses the default reminder.
+	 */
+	public int getDefaultReminderMinutes(){
+		return _defaultReminderMinutes;
+	}
+
+	/**
+	 * Get the calendarAlertsUri property.
+	 * 
+	 * @return Uri - The calendar alerts content provider URI.
+	 */
+	public Uri getCalendarAlertsUri(){
+		return _calendarAlertsUri;
+	}
+
+	/**
+	 * Get the calendarAlertEventIDColumn property.
+	 * 
+	 * @return String - The calendar alert event ID column.
+	 */
+	public String getCalendarAlertEventIDColumn(){
+		return _calendarAlertEventIDColumn;
+	}
+
+	/**
+	 * Get the calendarAlertsProjection property.
+	 * 
+	 * @return String[] - The calendar alert event ID and status columns.
+	 */
+	public String[] getCalendarAlertsProjection(){
+		return _calendarAlertsProjection;
+	}
+
+	/**
+	 * Get the calendarEventStatusProjection property.
+	 * 
+	 * @return String[] - The calendar alert event ID, status and event deleted columns.
+	 */
+	public String[] getCalendarEventStatusProjection(){
+		return _calendarEventStatusProjection;
+	}
+
+	/**
+	 * Get the calendarAlertStateDismissed property.
+	 * 
+	 * @return int - The calendar alert status of a dismissed event.
+	 */
+	public int getCalendarAlertStateDismissed(){
+		return _calendarAlertStateDismissed;
+	}
+
+	//================================================================================
+	// Private Methods
+	//================================================================================
+
+	/**
+	 * Use the public CalendarContract schema (Android 4.0+).
+	 */
+	@SuppressLint("NewApi")
+	private void initCalendarContractSchema(){
+		_calendarContract = true;
+		_calendarsUri = CalendarContract.Calendars.CONTENT_URI;
+		_calendarsProjection = new String[]{CalendarContract.Calendars._ID, CalendarContract.Events.CALENDAR_DISPLAY_NAME, CalendarContract.Events.VISIBLE};
+		_eventsUri = CalendarContract.Events.CONTENT_URI;
+		_eventIDColumn = CalendarContract.Events._ID;
+		_eventCalendarIDColumn = CalendarContract.Events.CALENDAR_ID;
+		_eventStartTimeColumn = CalendarContract.Events.DTSTART;
+		_eventsProjection = new String[]{
+				_eventCalendarIDColumn,
+				_eventIDColumn,
+				CalendarContract.Events.TITLE,
+				_eventStartTimeColumn,
+				CalendarContract.Events.DTEND,
+				CalendarContract.Events.ALL_DAY,
+				CalendarContract.Events.HAS_ALARM};
+		_eventIDProjection = new String[]{_eventIDColumn};
+		_remindersUri = CalendarContract.Reminders.CONTENT_URI;
+		_reminderEventIDColumn = CalendarContract.Reminders.EVENT_ID;
+		_remindersProjection = new String[]{_reminderEventIDColumn, CalendarContract.Reminders.MINUTES};
+		//CalendarContract does not expose a stored default reminder time, so 15 minutes is this application's fallback.
+		_defaultReminderMinutes = 15;
+		_calendarAlertsUri = CalendarContract.CalendarAlerts.CONTENT_URI;
+		_calendarAlertEventIDColumn = CalendarContract.CalendarAlerts.EVENT_ID;
+		_calendarAlertsProjection = new String[]{_calendarAlertEventIDColumn, CalendarContract.CalendarAlerts.STATUS};
+		_calendarEventStatusProjection = new String[]{_calendarAlertEventIDColumn, CalendarContract.CalendarAlerts.STATUS, CalendarContract.CalendarAlerts.DELETED};
+		_calendarAlertStateDismissed = CalendarContract.CalendarAlerts.STATE_DISMISSED;
+	}
+
+	/**
+	 * Use the undocumented "content://com.android.calendar" schema (Android 2.2 - 3.2).
+	 */
+	private void initLegacySchema(){
+		_calendarContract = false;
+		_calendarsUri = Uri.parse("content://com.android.calendar/calendars");
+		_calendarsProjection = new String[]{Constants.CALENDAR_ID, Constants.CALENDAR_DISPLAY_NAME, Constants.CALENDAR_SELECTED};
+		_eventsUri = Uri.parse("content://com.android.calendar/events");
+		_eventIDColumn = Constants.CALENDAR_EVENT_ID;
+		_eventCalendarIDColumn = Constants.CALENDAR_CALENDAR_ID;
+		_eventStartTimeColumn = Constants.CALENDAR_INSTANCE_BEGIN;
+		_eventsProjection = new String[]{
+				_eventCalendarIDColumn,
+				_eventIDColumn,
+				Constants.CALENDAR_EVENT_TITLE,
+				_eventStartTimeColumn,
+				Constants.CALENDAR_INSTANCE_END,
+				Constants.CALENDAR_EVENT_ALL_DAY,
+				Constants.CALENDAR_EVENT_HAS_ALARM};
+		_eventIDProjection = new String[]{_eventIDColumn};
+		_remindersUri = Uri.parse("content://com.android.calendar/reminders");
+		_reminderEventIDColumn = Constants.CALENDAR_REMINDER_EVENT_ID;
+		_remindersProjection = new String[]{_reminderEventIDColumn, Constants.CALENDAR_REMINDER_MINUTES};
+		//The legacy calendar provider does not expose a stored default reminder time either.
+		_defaultReminderMinutes = 15;
+		_calendarAlertsUri = Uri.parse("content://com.android.calendar/calendar_alerts");
+		_calendarAlertEventIDColumn = Constants.CALENDAR_ALERT_EVENT_ID;
+		_calendarAlertsProjection = new String[]{_calendarAlertEventIDColumn, Constants.CALENDAR_ALERT_EVENT_STATUS};
+		_calendarEventStatusProjection = new String[]{_calendarAlertEventIDColumn, Constants.CALENDAR_ALERT_EVENT_STATUS, Constants.CALENDAR_EVENT_DELETED};
+		_calendarAlertStateDismissed = 2;
+	}
+
+}
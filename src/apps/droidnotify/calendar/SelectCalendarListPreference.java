@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import android.app.AlertDialog.Builder;
 import android.content.Context;
 import android.content.DialogInterface;
+import android.os.AsyncTask;
 import android.preference.ListPreference;
 import android.util.AttributeSet;
 import android.widget.Toast;
@@ -50,6 +51,8 @@ public class SelectCalendarListPreference extends ListPreference {
     public SelectCalendarListPreference(Context context, AttributeSet attrs) {
         super(context, attrs);
         _context = context;
+        //Read the calendars in the background so that the dialog opens with a cached list.
+        new readCalendarsAsyncTask().execute();
     }
  
 	//================================================================================
@@ -81,6 +84,7 @@ public class SelectCalendarListPreference extends ListPreference {
     /**
      * Cusstom work done to initialize the ListPreference.
      * Read the calendars and add the names and IDs to the ListPreference.
+     * The calendars are normally already cached by the background read started when the preference was created.
      * 
      * @param builder - Dialog Builder.
      */
@@ -161,6 +165,21 @@ public class SelectCalendarListPreference extends ListPreference {
     	}
     }
 
+    /**
+     * Read the calendars in the background so that they are cached before the dialog is opened.
+     */
+    private class readCalendarsAsyncTask extends AsyncTask<Void, Void, Void> {
+	    /**
+	     * Do this work in the background.
+	     * 
+	     * @param params
+	     */
+	    protected Void doInBackground(Void... params) {
+	    	CalendarCommon.getAvailableCalendars(_context);
+	    	return null;
+	    }
+    }
+
     /**
      * Called when the Preference Dialog box is closed.
      * Store our custom preferences in a string and save it.
@@ -9,6 +9,8 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
@@ -86,6 +88,15 @@ public class Common {
 	private static KeyguardLock _keyguardLock = null;
 	private static PowerManager.WakeLock _wakeLock = null;
 	private static boolean _fullWakelockInUse = false;
+	private static final int PACKAGE_ICON_CACHE_SIZE = 20;
+	private static final HashMap<String, Boolean> _packageExistsCache = new HashMap<String, Boolean>();
+	private static final LinkedHashMap<String, Bitmap> _packageIconCache = new LinkedHashMap<String, Bitmap>(PACKAGE_ICON_CACHE_SIZE, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Bitmap> eldest){
+			return size() > PACKAGE_ICON_CACHE_SIZE;
+		}
+	};
 	
 	//================================================================================
 	// Public Methods
@@ -1780,6 +1791,30 @@ public class Common {
 		}
 	}	
 	
+	/**
+	 * Cancel an alarm that was started with the given parameters.
+	 * 
+	 * @param context - The application context.
+	 * @param className - The name of the receiver class.
+	 * @param actionText - The text that differentiates this alarm from other alarms.
+	 */
+	public static void cancelAlarm(Context context, Class<?> className, String actionText){
+		try{
+			AlarmManager alarmManager = (AlarmManager)context.getSystemService(Context.ALARM_SERVICE);
+			Intent intent = new Intent(context, className);
+			if(actionText != null){
+				intent.setAction(actionText);
+			}
+			PendingIntent pendingIntent = PendingIntent.getBroadcast(context, 0, intent, PendingIntent.FLAG_NO_CREATE);
+			if(pendingIntent != null){
+				alarmManager.cancel(pendingIntent);
+				pendingIntent.cancel();
+			}
+		}catch(Exception ex){
+			Log.e(context, "Common.cancelAlarm() ERROR: " + ex.toString());
+		}
+	}
+	
 	/**
 	 * Checks if the users device is online or not.
 	 * 
@@ -1934,13 +1969,24 @@ public class Common {
      * @return boolean - Returns true if the package name specified is installed on the device.
      */
 	public static boolean packageExists(Context context, String packageName){
+		synchronized(_packageExistsCache){
+			Boolean packageExists = _packageExistsCache.get(packageName);
+			if(packageExists != null){
+				return packageExists;
+			}
+		}
+		boolean packageExists = false;
     	try{
     	    @SuppressWarnings("unused")
 			ApplicationInfo applicationInfo = context.getPackageManager().getApplicationInfo(packageName, 0);
-    	    return true;
+    	    packageExists = true;
     	} catch(PackageManager.NameNotFoundException e){
-    	    return false;
+    	    packageExists = false;
     	}
+		synchronized(_packageExistsCache){
+			_packageExistsCache.put(packageName, packageExists);
+		}
+		return packageExists;
     }
 	
     /**
@@ -1967,6 +2013,7 @@ public class Common {
 	
 	/**
 	 * Get the package launcher icon for the provided package.
+	 * The icons are cached until the package is changed. The returned Bitmap is shared and must not be recycled.
 	 * 
 	 * @param context - The application context.
 	 * @param packageName - The package we are searching for.
@@ -1974,17 +2021,51 @@ public class Common {
 	 * @return Bitmap - Returns the package launcher icon.
 	 */
 	public static Bitmap getPackageIcon(Context context, String packageName){
+		synchronized(_packageIconCache){
+			Bitmap packageIcon = _packageIconCache.get(packageName);
+			if(packageIcon != null){
+				return packageIcon;
+			}
+		}
 		try{
 			ApplicationInfo applicationInfo = context.getPackageManager().getApplicationInfo(packageName, 0);
 			int packageIconId = applicationInfo.icon;
 			Resources resources = context.getPackageManager().getResourcesForApplication(packageName);
-			return BitmapFactory.decodeResource(resources, packageIconId);			
+			Bitmap packageIcon = BitmapFactory.decodeResource(resources, packageIconId);
+			if(packageIcon != null){
+				synchronized(_packageIconCache){
+					_packageIconCache.put(packageName, packageIcon);
+				}
+			}
+			return packageIcon;
 		}catch(Exception ex){
 			Log.e(context, "Common.getPackageIcon() ERROR: " + ex.toString());
 			return null;
 		}
 	}
 	
+	/**
+	 * Clear the cached information about a package.
+	 * 
+	 * @param packageName - The package that was added, removed or replaced. Clears every package if null.
+	 */
+	public static void clearPackageCache(String packageName){
+		synchronized(_packageExistsCache){
+			if(packageName == null){
+				_packageExistsCache.clear();
+			}else{
+				_packageExistsCache.remove(packageName);
+			}
+		}
+		synchronized(_packageIconCache){
+			if(packageName == null){
+				_packageIconCache.clear();
+			}else{
+				_packageIconCache.remove(packageName);
+			}
+		}
+	}
+	
 	/**
 	 * Export the application preferences to the SD card.
 	 * 
@@ -9,6 +9,9 @@ public class Constants {
 
 	//-----INTENT ACTION CONSTANTS-----//
 	public static final String INTENT_ACTION_CALENDAR_ALARMS  = "apps.droidnotify.calendar.alarms";
+	public static final String INTENT_ACTION_CALENDAR_REFRESH  = "apps.droidnotify.calendar.refresh";
+	public static final String INTENT_ACTION_API_NOTIFICATION_RECEIVED  = "apps.droidnotify.api.NOTIFICATION_RECEIVED";
+	public static final String INTENT_ACTION_API_NOTIFICATION_BATCH_RECEIVED  = "apps.droidnotify.api.NOTIFICATION_BATCH_RECEIVED";
 
 	//-----DEBUG CONSTANTS-----//
 	public static final String LOGTAG = "DroidNotifyLite";
@@ -65,6 +68,10 @@ public class Constants {
 	public static final String BUNDLE_NOTIFICATION_BUNDLE_NAME = "NOTIFICATION_BUNDLE_NAME";
 	public static final String BUNDLE_NOTIFICATION_BUNDLE_COUNT = "NOTIFICATION_BUNDLE_COUNT";
 	
+	//The Bundle[] of notifications sent with a INTENT_ACTION_API_NOTIFICATION_BATCH_RECEIVED intent.
+	//Each Bundle uses the same keys as the extras of a single INTENT_ACTION_API_NOTIFICATION_RECEIVED intent.
+	public static final String BUNDLE_NOTIFICATION_BATCH = "notificationBatch";
+	
 	//-----QUICK REPLY CONSTANTS-----//
 	public static final String QUICK_REPLY_ENABLED_KEY = "quick_reply_enabled";
 	public static final String QUICK_REPLY_SIGNATURE_ENABLED_KEY = "quick_reply_signature_enabled";
@@ -202,6 +209,14 @@ public class Constants {
 	public static final String REMINDER_FREQUENCY_DEFAULT = "5";
 	public static final String REMINDER_INTERVAL_KEY = "reminder_interval";
 	public static final String REMINDER_INTERVAL_DEFAULT = "60";
+	public static final String REMINDER_RETENTION_KEY = "reminder_retention";
+	public static final String REMINDER_RETENTION_DEFAULT = "3";
+	public static final String REMINDER_DB_CLEAN_TIME_KEY = "reminder_db_clean_time";
+	public static final String REMINDER_DB_CLEAN_DURATION_KEY = "reminder_db_clean_duration";
+	public static final String REMINDER_DB_CLEAN_DELETED_COUNT_KEY = "reminder_db_clean_deleted_count";
+	public static final String REMINDER_DB_VACUUM_TIME_KEY = "reminder_db_vacuum_time";
+	public static final String REMINDER_DB_SIZE_KEY = "reminder_db_size";
+	public static final String REMINDER_DB_STATUS_KEY = "reminder_db_status";
 	
 	//-----CONTACT PHOTO CONSTANTS-----//
 	public static final String CONTACT_PHOTO_DISPLAY_KEY = "display_contact_photo";
@@ -422,6 +437,12 @@ public class Constants {
     public static final String CALENDAR_REMINDER_ALL_DAY_KEY = "calendar_reminder_all_day_settings";
     public static final String CALENDAR_POLLING_FREQUENCY_KEY = "calendar_polling_frequency"; 
     public static final String CALENDAR_POLLING_FREQUENCY_DEFAULT = "15";
+	public static final String CALENDAR_LOOKAHEAD_DAYS_KEY = "calendar_lookahead_days";
+	public static final String CALENDAR_LOOKAHEAD_DAYS_DEFAULT = "3";
+	public static final String CALENDAR_EVENT_DRIVEN_ENABLED_KEY = "calendar_event_driven_enabled";
+	public static final String CALENDAR_REFRESH_WAKEUP_COUNT_KEY = "calendar_refresh_wakeup_count";
+	public static final String CALENDAR_REFRESH_WAKEUP_START_TIME_KEY = "calendar_refresh_wakeup_start_time";
+	public static final String CALENDAR_WAKEUPS_SAVED_KEY = "calendar_wakeups_saved";
 	public static final String CALENDAR_DISPLAY_DISMISS_BUTTON_KEY = "calendar_display_dismiss_button";
 	public static final String CALENDAR_DISPLAY_VIEW_BUTTON_KEY = "calendar_display_view_button";
 	public static final String CALENDAR_DISPLAY_SNOOZE_BUTTON_KEY = "calendar_display_snooze_button";
@@ -451,6 +472,10 @@ public class Constants {
     public static final String CALENDAR_REMINDER_MINUTES = "minutes";  
 	public static final String CALENDAR_ALERT_EVENT_ID = "event_id";
 	public static final String CALENDAR_ALERT_EVENT_STATUS = "eventStatus";
+	public static final String CALENDAR_EVENT_DELETED = "deleted";
+	public static final int CALENDAR_EVENT_STATUS_ACTIVE = 0;
+	public static final int CALENDAR_EVENT_STATUS_DISMISSED = 1;
+	public static final int CALENDAR_EVENT_STATUS_DELETED = 2;
 	public static final String CALENDAR_DISMISS_KEY = "calendar_dismiss_button_action";
 	public static final String CALENDAR_DISMISS_ACTION_MARK_DISMISSED = "1";
 	
@@ -480,6 +505,8 @@ public class Constants {
 	
 	//-----GENERIC NOTIFICATION CONSTANTS-----//	
 	public static final String GENERIC_NOTIFICATIONS_ENABLED_KEY = "generic_notifications_enabled";
+	public static final String GENERIC_NOTIFICATIONS_REJECTED_KEY = "generic_notifications_rejected";
+	public static final String SERVICE_QUEUE_STATUS_KEY = "service_queue_status";
 	
 	//-----APPLICATION URL CONSTANTS-----//
 	//Android Market URL
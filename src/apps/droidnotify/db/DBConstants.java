@@ -13,10 +13,15 @@ public class DBConstants {
 	public static final String COLUMN_ACTION = "_action";
 	public static final String COLUMN_DISMISSED = "_dismissed";
 	public static final String COLUMN_CREATED = "_created";
+	public static final String COLUMN_EVENT_ID = "_event_id";
+	public static final String COLUMN_EVENT_START = "_event_start";
+	public static final String COLUMN_ALARM_TIME = "_alarm_time";
+	public static final String COLUMN_HASH = "_hash";
+	public static final String COLUMN_TYPE = "_type";
 
     public static final String AUTHORITY_REMINDER = "apps.droidnotify.providers.remindercontentprovider";
 	public static final String DATABASE_NAME_REMINDER = "reminder.db";
-	public static final int DATABASE_VERSION_REMINDER = 1;
+	public static final int DATABASE_VERSION_REMINDER = 5;
 	public static final String TABLE_NAME_REMINDER = "reminder";
     public static final String CONTENT_URI_REMINDER_PATH = "content://" + AUTHORITY_REMINDER + "/" + TABLE_NAME_REMINDER;
     public static final Uri CONTENT_URI_REMINDER = Uri.parse(CONTENT_URI_REMINDER_PATH);
@@ -24,7 +29,27 @@ public class DBConstants {
     public static final String DATABASE_CREATE_REMINDER = "CREATE TABLE " + TABLE_NAME_REMINDER + "( " + 
     															COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " + 
     															COLUMN_CREATED + " INTEGER NOT NULL, " +
+    															COLUMN_HASH + " INTEGER NOT NULL, " +
+    															COLUMN_TYPE + " INTEGER NOT NULL, " +
     															COLUMN_ACTION + " TEXT NOT NULL, " +
     															COLUMN_DISMISSED + " INTEGER NOT NULL);";
+    //Version 3 makes the reminder action unique. Older tables get the constraint through this index until version 5 replaces it with the hash index.
+    public static final String DATABASE_CREATE_REMINDER_ACTION_INDEX = "CREATE UNIQUE INDEX IF NOT EXISTS " + TABLE_NAME_REMINDER + COLUMN_ACTION + "_index ON " + TABLE_NAME_REMINDER + " (" + COLUMN_ACTION + ");";
+    //Version 4 indexes the reminder creation time used to clean old reminders.
+    public static final String DATABASE_CREATE_REMINDER_CREATED_INDEX = "CREATE INDEX IF NOT EXISTS " + TABLE_NAME_REMINDER + COLUMN_CREATED + "_index ON " + TABLE_NAME_REMINDER + " (" + COLUMN_CREATED + ");";
+    //Version 5 looks reminders up by a 64-bit hash of the action. The action is only compared when the hashes match.
+    public static final String DATABASE_CREATE_REMINDER_HASH_INDEX = "CREATE INDEX IF NOT EXISTS " + TABLE_NAME_REMINDER + COLUMN_HASH + "_index ON " + TABLE_NAME_REMINDER + " (" + COLUMN_HASH + ");";
+    
+	public static final String TABLE_NAME_CALENDAR_ALARM = "calendar_alarm";
+    public static final String CONTENT_URI_CALENDAR_ALARM_PATH = "content://" + AUTHORITY_REMINDER + "/" + TABLE_NAME_CALENDAR_ALARM;
+    public static final Uri CONTENT_URI_CALENDAR_ALARM = Uri.parse(CONTENT_URI_CALENDAR_ALARM_PATH);
+    public static final String CONTENT_TYPE_CALENDAR_ALARM = "vnd.android.cursor.dir/vnd.droidnotify.calendaralarm";
+    public static final String DATABASE_CREATE_CALENDAR_ALARM = "CREATE TABLE " + TABLE_NAME_CALENDAR_ALARM + "( " + 
+    															COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " + 
+    															COLUMN_ACTION + " TEXT NOT NULL UNIQUE, " +
+    															COLUMN_EVENT_ID + " INTEGER NOT NULL, " +
+    															COLUMN_EVENT_START + " INTEGER NOT NULL, " +
+    															COLUMN_ALARM_TIME + " INTEGER NOT NULL, " +
+    															COLUMN_HASH + " INTEGER NOT NULL);";
 
 }
@@ -0,0 +1,155 @@
+package apps.droidnotify.db;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+/**
+ * Direct access to the reminder table for use inside this application.
+ * 
+ * The reminder DB lives in this process, so the reminder methods use the database shared with the ReminderContentProvider
+ * and precompiled statements instead of going through the ContentResolver.
+ * The ReminderContentProvider is still used for external and backup access.
+ * 
+ * @author Camille Svigny
+ */
+public class ReminderDAO {
+
+	//================================================================================
+    // Properties
+    //================================================================================
+
+	private static ReminderDAO _reminderDAO = null;
+
+	private SQLiteDatabase _db = null;
+	private SQLiteStatement _countStatement = null;
+	private SQLiteStatement _insertStatement = null;
+	private SQLiteStatement _updateStatement = null;
+
+	//================================================================================
+	// Constructors
+	//================================================================================
+
+	/**
+	 * ReminderDAO constructor.
+	 * 
+	 * @param db - The reminder database.
+	 */
+	private ReminderDAO(SQLiteDatabase db){
+		_db = db;
+		_countStatement = db.compileStatement("SELECT COUNT(*) FROM " + DBConstants.TABLE_NAME_REMINDER + " WHERE " + DBConstants.COLUMN_HASH + "=? AND " + DBConstants.COLUMN_ACTION + "=?;");
+		_insertStatement = db.compileStatement("INSERT INTO " + DBConstants.TABLE_NAME_REMINDER + " (" +
+				DBConstants.COLUMN_CREATED + ", " +
+				DBConstants.COLUMN_HASH + ", " +
+				DBConstants.COLUMN_TYPE + ", " +
+				DBConstants.COLUMN_ACTION + ", " +
+				DBConstants.COLUMN_DISMISSED + ") VALUES (?, ?, ?, ?, ?);");
+		_updateStatement = db.compileStatement("UPDATE " + DBConstants.TABLE_NAME_REMINDER + " SET " + DBConstants.COLUMN_DISMISSED + "=? WHERE " + DBConstants.COLUMN_HASH + "=? AND " + DBConstants.COLUMN_ACTION + "=?;");
+	}
+
+	//================================================================================
+	// Public Methods
+	//================================================================================
+
+	/**
+	 * Get the reminder DAO, compiling its statements again if the reminder database was reopened.
+	 * 
+	 * @param context - The application context.
+	 * 
+	 * @return ReminderDAO - The reminder DAO.
+	 */
+	public static synchronized ReminderDAO getReminderDAO(Context context){
+		SQLiteDatabase db = SQLiteHelperReminder.getDatabase(context);
+		if(_reminderDAO == null || _reminderDAO._db != db){
+			_reminderDAO = new ReminderDAO(db);
+		}
+		return _reminderDAO;
+	}
+
+	/**
+	 * Insert a reminder unless a reminder with the same action already exists.
+	 * 
+	 * @param intentAction - The action of the reminder.
+	 * @param dismissed - Whether or not this reminder is dismissed or not.
+	 * 
+	 * @return boolean - Returns true if the reminder was inserted or false if it already existed.
+	 */
+	public synchronized boolean insertReminder(String intentAction, boolean dismissed){
+		long hash = SQLiteHelperReminder.getReminderHash(intentAction);
+		boolean inserted = false;
+		_db.beginTransaction();
+		try{
+			_countStatement.bindLong(1, hash);
+			_countStatement.bindString(2, intentAction);
+			if(_countStatement.simpleQueryForLong() == 0){
+				_insertStatement.bindLong(1, System.currentTimeMillis());
+				_insertStatement.bindLong(2, hash);
+				_insertStatement.bindLong(3, SQLiteHelperReminder.getReminderType(intentAction));
+				_insertStatement.bindString(4, intentAction);
+				_insertStatement.bindLong(5, dismissed ? 1 : 0);
+				inserted = _insertStatement.executeInsert() > 0;
+			}
+			_db.setTransactionSuccessful();
+		}finally{
+			_db.endTransaction();
+		}
+		return inserted;
+	}
+
+	/**
+	 * Update the dismissed value of the specified reminders in a single transaction.
+	 * 
+	 * @param intentActions - The actions of the reminders.
+	 * @param dismissed - Whether or not these reminders are dismissed or not.
+	 */
+	public synchronized void updateReminders(ArrayList<String> intentActions, boolean dismissed){
+		_db.beginTransaction();
+		try{
+			for(String intentAction : intentActions){
+				_updateStatement.bindLong(1, dismissed ? 1 : 0);
+				_updateStatement.bindLong(2, SQLiteHelperReminder.getReminderHash(intentAction));
+				_updateStatement.bindString(3, intentAction);
+				_updateStatement.execute();
+			}
+			_db.setTransactionSuccessful();
+		}finally{
+			_db.endTransaction();
+		}
+	}
+
+	/**
+	 * Get the actions of the dismissed reminders.
+	 * 
+	 * @return HashSet<String> - The dismissed reminder actions.
+	 */
+	public synchronized HashSet<String> getDismissedActions(){
+		HashSet<String> dismissedActions = new HashSet<String>();
+		Cursor cursor = _db.rawQuery("SELECT " + DBConstants.COLUMN_ACTION + " FROM " + DBConstants.TABLE_NAME_REMINDER + " WHERE " + DBConstants.COLUMN_DISMISSED + "=1;", null);
+		try{
+			while(cursor.moveToNext()){
+				dismissedActions.add(cursor.getString(0));
+			}
+		}finally{
+			cursor.close();
+		}
+		return dismissedActions;
+	}
+
+	/**
+	 * Delete up to the specified number of reminders created before the specified time.
+	 * 
+	 * @param createdBefore - The reminders created before this time are deleted.
+	 * @param limit - The maximum number of reminders to delete.
+	 * 
+	 * @return int - The number of reminders that were deleted.
+	 */
+	public synchronized int deleteOldReminders(long createdBefore, int limit){
+		String deleteWhere = DBConstants.COLUMN_ID + " IN (SELECT " + DBConstants.COLUMN_ID + " FROM " + DBConstants.TABLE_NAME_REMINDER + " WHERE " + DBConstants.COLUMN_CREATED + "<? LIMIT " + limit + ")";
+		return _db.delete(DBConstants.TABLE_NAME_REMINDER, deleteWhere, new String[]{String.valueOf(createdBefore)});
+	}
+
+}
\ No newline at end of file
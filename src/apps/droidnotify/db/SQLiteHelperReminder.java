@@ -5,26 +5,156 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 
+import android.annotation.SuppressLint;
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 
+import apps.droidnotify.common.Common;
 import apps.droidnotify.common.FileUtils;
 
 public class SQLiteHelperReminder extends SQLiteOpenHelper{
 
+	private static final long FNV_64_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_64_PRIME = 0x100000001b3L;
+	
+	private static SQLiteHelperReminder _sharedDBHelper = null;
+	private static SQLiteDatabase _sharedDB = null;
+
 	public SQLiteHelperReminder(Context context){
 		super(context, DBConstants.DATABASE_NAME_REMINDER, null, DBConstants.DATABASE_VERSION_REMINDER);
 	}
+	
+	/**
+	 * Get the reminder database shared by the reminder content provider and the ReminderDAO, opening it the first time it is used.
+	 * The database stays open for the lifetime of the process and uses write-ahead logging when the device supports it.
+	 * 
+	 * @param context - The application context.
+	 * 
+	 * @return SQLiteDatabase - The reminder database.
+	 */
+	@SuppressLint("NewApi")
+	public static synchronized SQLiteDatabase getDatabase(Context context){
+		if(_sharedDB == null || !_sharedDB.isOpen()){
+			if(_sharedDBHelper == null){
+				_sharedDBHelper = new SQLiteHelperReminder(context.getApplicationContext());
+			}
+			_sharedDB = _sharedDBHelper.getWritableDatabase();
+			if(Common.getDeviceAPILevel() >= android.os.Build.VERSION_CODES.HONEYCOMB){
+				_sharedDB.enableWriteAheadLogging();
+			}
+		}
+		return _sharedDB;
+	}
+	
+	/**
+	 * Get the 64-bit FNV-1a hash of a reminder action.
+	 * Different actions can have the same hash, so the action still needs to be compared when the hashes match.
+	 * 
+	 * @param intentAction - The action of the reminder.
+	 * 
+	 * @return long - The hash of the reminder action.
+	 */
+	public static long getReminderHash(String intentAction){
+		long hash = FNV_64_OFFSET_BASIS;
+		int length = intentAction.length();
+		for(int i = 0; i < length; i++){
+			hash ^= intentAction.charAt(i);
+			hash *= FNV_64_PRIME;
+		}
+		return hash;
+	}
+	
+	/**
+	 * Get the notification type of a reminder action.
+	 * Reminder actions start with "apps.droidnotify.reminder.<Reminder Number>.<Notification Type>.".
+	 * 
+	 * @param intentAction - The action of the reminder.
+	 * 
+	 * @return int - The notification type or -1 if the action does not contain one.
+	 */
+	public static int getReminderType(String intentAction){
+		try{
+			String[] actionParts = intentAction.split("\\.", 6);
+			if(actionParts.length < 6){
+				return -1;
+			}
+			return Integer.parseInt(actionParts[4]);
+		}catch(NumberFormatException ex){
+			return -1;
+		}
+	}
 
 	@Override
 	public void onCreate(SQLiteDatabase db){
 		db.execSQL(DBConstants.DATABASE_CREATE_REMINDER);
+		db.execSQL(DBConstants.DATABASE_CREATE_REMINDER_HASH_INDEX);
+		db.execSQL(DBConstants.DATABASE_CREATE_REMINDER_CREATED_INDEX);
+		db.execSQL(DBConstants.DATABASE_CREATE_CALENDAR_ALARM);
 	}
 
 	@Override
 	public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion){
 		//Alter DB on upgrade.
+		if(oldVersion < 2){
+			//Version 2 adds the scheduled calendar alarms table.
+			db.execSQL(DBConstants.DATABASE_CREATE_CALENDAR_ALARM);
+		}
+		if(oldVersion < 3){
+			//Version 3 makes the reminder action unique.
+			//Keep the oldest row of each action and carry over the dismissed state of its duplicates.
+			db.execSQL("UPDATE " + DBConstants.TABLE_NAME_REMINDER + " SET " + DBConstants.COLUMN_DISMISSED + " = (SELECT MAX(duplicate." + DBConstants.COLUMN_DISMISSED + ") FROM " + DBConstants.TABLE_NAME_REMINDER + " duplicate WHERE duplicate." + DBConstants.COLUMN_ACTION + " = " + DBConstants.TABLE_NAME_REMINDER + "." + DBConstants.COLUMN_ACTION + ");");
+			db.execSQL("DELETE FROM " + DBConstants.TABLE_NAME_REMINDER + " WHERE " + DBConstants.COLUMN_ID + " NOT IN (SELECT MIN(" + DBConstants.COLUMN_ID + ") FROM " + DBConstants.TABLE_NAME_REMINDER + " GROUP BY " + DBConstants.COLUMN_ACTION + ");");
+			db.execSQL(DBConstants.DATABASE_CREATE_REMINDER_ACTION_INDEX);
+		}
+		if(oldVersion < 4){
+			//Version 4 indexes the reminder creation time.
+			db.execSQL(DBConstants.DATABASE_CREATE_REMINDER_CREATED_INDEX);
+		}
+		if(oldVersion < 5){
+			//Version 5 replaces the unique action index with the action hash and adds the notification type.
+			upgradeReminderHash(db);
+		}
+	}
+	
+	/**
+	 * Rebuild the reminder table with the action hash and notification type of every reminder.
+	 * The old table and its indexes are dropped once the reminders have been copied.
+	 * 
+	 * @param db - The reminder database.
+	 */
+	private void upgradeReminderHash(SQLiteDatabase db){
+		String oldTableName = DBConstants.TABLE_NAME_REMINDER + "_old";
+		db.execSQL("ALTER TABLE " + DBConstants.TABLE_NAME_REMINDER + " RENAME TO " + oldTableName + ";");
+		db.execSQL(DBConstants.DATABASE_CREATE_REMINDER);
+		SQLiteStatement insertStatement = db.compileStatement("INSERT INTO " + DBConstants.TABLE_NAME_REMINDER + " (" + 
+				DBConstants.COLUMN_ID + ", " + 
+				DBConstants.COLUMN_CREATED + ", " + 
+				DBConstants.COLUMN_HASH + ", " + 
+				DBConstants.COLUMN_TYPE + ", " + 
+				DBConstants.COLUMN_ACTION + ", " + 
+				DBConstants.COLUMN_DISMISSED + ") VALUES (?, ?, ?, ?, ?, ?);");
+		Cursor cursor = db.query(oldTableName, new String[]{DBConstants.COLUMN_ID, DBConstants.COLUMN_CREATED, DBConstants.COLUMN_ACTION, DBConstants.COLUMN_DISMISSED}, null, null, null, null, null);
+		try{
+			while(cursor.moveToNext()){
+				String intentAction = cursor.getString(2);
+				insertStatement.bindLong(1, cursor.getLong(0));
+				insertStatement.bindLong(2, cursor.getLong(1));
+				insertStatement.bindLong(3, getReminderHash(intentAction));
+				insertStatement.bindLong(4, getReminderType(intentAction));
+				insertStatement.bindString(5, intentAction);
+				insertStatement.bindLong(6, cursor.getLong(3));
+				insertStatement.executeInsert();
+			}
+		}finally{
+			cursor.close();
+			insertStatement.close();
+		}
+		db.execSQL("DROP TABLE " + oldTableName + ";");
+		db.execSQL(DBConstants.DATABASE_CREATE_REMINDER_HASH_INDEX);
+		db.execSQL(DBConstants.DATABASE_CREATE_REMINDER_CREATED_INDEX);
 	}
 	
 	/**
@@ -1,13 +1,18 @@
 package apps.droidnotify.db.providers;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 
 import android.content.ContentProvider;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.Context;
+import android.content.OperationApplicationException;
 import android.content.UriMatcher;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteQueryBuilder;
@@ -19,23 +24,25 @@ import apps.droidnotify.db.SQLiteHelperReminder;
 public class ReminderContentProvider extends ContentProvider{
 
     private static final int URI_MATCH = 1;
+    private static final int URI_MATCH_CALENDAR_ALARM = 2;
 	
 	private Context _context = null;
-    private SQLiteHelperReminder _dbHelper;
     private UriMatcher _uriMatcher;
     private static HashMap<String, String> _projectionMap;
 
     @Override
     public boolean onCreate(){
     	_context = this.getContext();
-    	_dbHelper = new SQLiteHelperReminder(_context);
     	//Setup URIMatcher.
     	_uriMatcher = new UriMatcher(UriMatcher.NO_MATCH);
     	_uriMatcher.addURI(DBConstants.AUTHORITY_REMINDER, DBConstants.TABLE_NAME_REMINDER, URI_MATCH);
+    	_uriMatcher.addURI(DBConstants.AUTHORITY_REMINDER, DBConstants.TABLE_NAME_CALENDAR_ALARM, URI_MATCH_CALENDAR_ALARM);
     	//Setup Projection Map.
     	_projectionMap = new HashMap<String, String>();
     	_projectionMap.put(DBConstants.COLUMN_ID, DBConstants.COLUMN_ID);
     	_projectionMap.put(DBConstants.COLUMN_CREATED, DBConstants.COLUMN_CREATED);
+    	_projectionMap.put(DBConstants.COLUMN_HASH, DBConstants.COLUMN_HASH);
+    	_projectionMap.put(DBConstants.COLUMN_TYPE, DBConstants.COLUMN_TYPE);
     	_projectionMap.put(DBConstants.COLUMN_ACTION, DBConstants.COLUMN_ACTION);
     	_projectionMap.put(DBConstants.COLUMN_DISMISSED, DBConstants.COLUMN_DISMISSED);
     	return true;
@@ -49,10 +56,13 @@ public class ReminderContentProvider extends ContentProvider{
                 qb.setTables(DBConstants.TABLE_NAME_REMINDER);
                 qb.setProjectionMap(_projectionMap);
                 break;
+            case URI_MATCH_CALENDAR_ALARM:
+                qb.setTables(DBConstants.TABLE_NAME_CALENDAR_ALARM);
+                break;
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri);
         }
-        SQLiteDatabase db = _dbHelper.getReadableDatabase();
+        SQLiteDatabase db = getDatabase();
         Cursor cursor = qb.query(db, projection, selection, selectionArgs, null, null, sortOrder);
         cursor.setNotificationUri(_context.getContentResolver(), uri);
         return cursor;
@@ -60,57 +70,89 @@ public class ReminderContentProvider extends ContentProvider{
 
     @Override
     public Uri insert(Uri uri, ContentValues initialValues){
-        if (_uriMatcher.match(uri) != URI_MATCH){ throw new IllegalArgumentException("Unknown URI: " + uri); }
+        String tableName = getTableName(uri);
         ContentValues values;
         if(initialValues == null){
             values = new ContentValues();
         }else{
             values = new ContentValues(initialValues);
         }
-        SQLiteDatabase db = _dbHelper.getWritableDatabase();
-        long rowId = db.insert(DBConstants.TABLE_NAME_REMINDER, DBConstants.COLUMN_ACTION, values);
+        SQLiteDatabase db = getDatabase();
+        long rowId = -1;
+        if(tableName.equals(DBConstants.TABLE_NAME_REMINDER)){
+        	//Reminders are unique by action. An existing reminder is left as it is.
+        	rowId = insertReminder(db, values);
+        	if(rowId <= 0){
+        		return null;
+        	}
+        }else{
+        	rowId = db.insert(tableName, DBConstants.COLUMN_ACTION, values);
+        }
         if(rowId > 0){
-            Uri currentUri = ContentUris.withAppendedId(DBConstants.CONTENT_URI_REMINDER, rowId);
+            Uri currentUri = ContentUris.withAppendedId(uri, rowId);
             _context.getContentResolver().notifyChange(currentUri, null);
-            db.close();
             return currentUri;
         }
         throw new SQLException("Failed to insert row into: " + uri);
     }
 
     @Override
-	public int update(Uri uri, ContentValues values, String where, String[] whereArgs){
-    	SQLiteDatabase db = _dbHelper.getWritableDatabase();
-		int count;
-        switch (_uriMatcher.match(uri)){
-            case URI_MATCH:{
-                count = db.update(DBConstants.TABLE_NAME_REMINDER, values, where, whereArgs);
-                break;
-            }
-            default:{
-                throw new IllegalArgumentException("Unknown URI: " + uri);
-            }
+    public int bulkInsert(Uri uri, ContentValues[] valuesArray){
+        String tableName = getTableName(uri);
+        boolean reminderTable = tableName.equals(DBConstants.TABLE_NAME_REMINDER);
+        SQLiteDatabase db = getDatabase();
+        int count = 0;
+        db.beginTransaction();
+        try{
+        	for(ContentValues values : valuesArray){
+        		long rowId = -1;
+        		if(reminderTable){
+                	//Reminders are unique by action. An existing reminder is left as it is.
+        			rowId = insertReminder(db, new ContentValues(values));
+        		}else{
+        			rowId = db.insert(tableName, DBConstants.COLUMN_ACTION, values);
+        		}
+        		if(rowId > 0){
+        			count++;
+        		}
+        	}
+        	db.setTransactionSuccessful();
+        }finally{
+        	db.endTransaction();
+        }
+        if(count > 0){
+        	_context.getContentResolver().notifyChange(uri, null);
         }
+        return count;
+    }
+
+    @Override
+    public ContentProviderResult[] applyBatch(ArrayList<ContentProviderOperation> operations) throws OperationApplicationException{
+    	//Run all the operations in a single transaction.
+        SQLiteDatabase db = getDatabase();
+        db.beginTransaction();
+        try{
+        	ContentProviderResult[] results = super.applyBatch(operations);
+        	db.setTransactionSuccessful();
+        	return results;
+        }finally{
+        	db.endTransaction();
+        }
+    }
+
+    @Override
+	public int update(Uri uri, ContentValues values, String where, String[] whereArgs){
+    	SQLiteDatabase db = getDatabase();
+		int count = db.update(getTableName(uri), values, where, whereArgs);
         _context.getContentResolver().notifyChange(uri, null);
-        db.close();
         return count;
     }
     
     @Override
     public int delete(Uri uri, String where, String[] whereArgs){
-        SQLiteDatabase db = _dbHelper.getWritableDatabase();
-        int count;
-        switch(_uriMatcher.match(uri)){
-            case URI_MATCH:{
-                count = db.delete(DBConstants.TABLE_NAME_REMINDER, where, whereArgs);
-                break;
-            }
-            default:{
-                throw new IllegalArgumentException("Unknown URI: " + uri);
-            }
-        }
+        SQLiteDatabase db = getDatabase();
+        int count = db.delete(getTableName(uri), where, whereArgs);
         _context.getContentResolver().notifyChange(uri, null);
-        db.close();
         return count;
     }
     
@@ -119,6 +161,9 @@ public class ReminderContentProvider extends ContentProvider{
         switch (_uriMatcher.match(uri)){
         	case URI_MATCH:{
                 return DBConstants.CONTENT_TYPE_REMINDER;
+            }
+        	case URI_MATCH_CALENDAR_ALARM:{
+                return DBConstants.CONTENT_TYPE_CALENDAR_ALARM;
             }
             default:{
                 throw new IllegalArgumentException("Unknown URI: " + uri);
@@ -126,4 +171,64 @@ public class ReminderContentProvider extends ContentProvider{
         }	
     }
     
+    /**
+     * Get the database, opening it the first time it is used.
+     * The provider shares its database connection with the reminder DB maintenance.
+     * 
+     * @return SQLiteDatabase - The reminder database.
+     */
+    private SQLiteDatabase getDatabase(){
+    	return SQLiteHelperReminder.getDatabase(_context);
+    }
+    
+    /**
+     * Insert a reminder unless a reminder with the same action already exists.
+     * The action hash and notification type are added to the values.
+     * 
+     * @param db - The reminder database.
+     * @param values - The values of the reminder.
+     * 
+     * @return long - The row ID of the new reminder or -1 if the reminder already exists.
+     */
+    private long insertReminder(SQLiteDatabase db, ContentValues values){
+    	String intentAction = values.getAsString(DBConstants.COLUMN_ACTION);
+    	long hash = SQLiteHelperReminder.getReminderHash(intentAction);
+    	values.put(DBConstants.COLUMN_HASH, hash);
+    	values.put(DBConstants.COLUMN_TYPE, SQLiteHelperReminder.getReminderType(intentAction));
+    	long rowId = -1;
+    	db.beginTransaction();
+    	try{
+    		//The hash index finds the matching reminders. The action is only compared if the hashes collide.
+    		long existingCount = DatabaseUtils.longForQuery(db, "SELECT COUNT(*) FROM " + DBConstants.TABLE_NAME_REMINDER + " WHERE " + DBConstants.COLUMN_HASH + "=? AND " + DBConstants.COLUMN_ACTION + "=?", new String[]{String.valueOf(hash), intentAction});
+    		if(existingCount == 0){
+    			rowId = db.insert(DBConstants.TABLE_NAME_REMINDER, DBConstants.COLUMN_ACTION, values);
+    		}
+    		db.setTransactionSuccessful();
+    	}finally{
+    		db.endTransaction();
+    	}
+    	return rowId;
+    }
+    
+    /**
+     * Get the name of the table the URI refers to.
+     * 
+     * @param uri - The URI we are working with.
+     * 
+     * @return String - The table name.
+     */
+    private String getTableName(Uri uri){
+        switch (_uriMatcher.match(uri)){
+        	case URI_MATCH:{
+                return DBConstants.TABLE_NAME_REMINDER;
+            }
+        	case URI_MATCH_CALENDAR_ALARM:{
+                return DBConstants.TABLE_NAME_CALENDAR_ALARM;
+            }
+            default:{
+                throw new IllegalArgumentException("Unknown URI: " + uri);
+            }
+        }
+    }
+    
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package apps.droidnotify.k9;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 
 import android.content.ComponentName;
 import android.content.Context;
@@ -26,6 +28,8 @@ public class K9Common {
     //================================================================================
 	
 	private static boolean _debug = false; 
+	private static HashMap<String, String> _k9ForPureAccountUIDs = null;
+	private static final ArrayList<Intent> _pendingK9Broadcasts = new ArrayList<Intent>();
 	
 	//================================================================================
 	// Public Methods
@@ -42,177 +46,186 @@ public class K9Common {
 	public static Bundle getK9MessagesFromIntent(Context context, Bundle bundle, String intentAction){
 		_debug = Log.getDebug(context);
 		if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() IntentAction: " + intentAction);
+		Intent k9Intent = new Intent(intentAction);
+		k9Intent.putExtras(bundle);
+		ArrayList<Intent> k9Intents = new ArrayList<Intent>();
+		k9Intents.add(k9Intent);
+		Bundle k9NotificationBundle = getK9MessagesFromIntents(context, k9Intents, null);
+        if(k9NotificationBundle == null){
+        	Log.e(context, "K9Common.getK9MessagesFromIntent() No Email Found Matching The Date & Account.");
+        }
+		return k9NotificationBundle;
+	}
+	
+	/**
+	 * Parse a burst of incoming K9 messages.
+	 * Each K9 client inbox is read once for all the messages of that inbox.
+	 * 
+	 * @param context - The application context.
+	 * @param k9Intents - The incoming K9 intents.
+	 * @param missingK9Intents - The list the intents whose message could not be found are added to. Can be null.
+	 * 
+	 * @return Bundle - Returns a Bundle that contain the K9 notification information of every message that was found.
+	 */
+	public static Bundle getK9MessagesFromIntents(Context context, ArrayList<Intent> k9Intents, ArrayList<Intent> missingK9Intents){
+		_debug = Log.getDebug(context);
+		if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntents() Intent Count: " + k9Intents.size());
 		SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
 		Bundle k9NotificationBundle = new Bundle();
 		int bundleCount = 0;
-    	long timeStamp = -1;
-		String accountName = null;
-    	String sentFromAddress = null;
-    	String messageBody = null;
-    	String messageSubject = null;
-    	long messageID = -1;
-		String k9EmailUri = null;
-		String k9EmailDelUri = null;
-		Date sentDate = null;
-		String packageName = "com.fsck.k9";
-		int notificationSubType = Constants.NOTIFICATION_TYPE_K9_MAIL;
-		try{	    			
-			Bundle k9NotificationBundleSingle = new Bundle();
-			bundleCount++;
-			if(intentAction.startsWith(Constants.INTENT_ACTION_KAITEN)){
-				notificationSubType = Constants.NOTIFICATION_TYPE_KAITEN_MAIL;
-				packageName = "com.kaitenmail";
-			}else if(intentAction.startsWith(Constants.INTENT_ACTION_K9)){
-				notificationSubType = Constants.NOTIFICATION_TYPE_K9_MAIL;
-				packageName = "com.fsck.k9";
-			}else if(intentAction.startsWith(Constants.INTENT_ACTION_K9_FOR_PURE)){
-				notificationSubType = Constants.NOTIFICATION_TYPE_K9_FOR_PURE;
-				packageName = "org.koxx.k9ForPureWidget";
+		try{
+			//Parse the broadcasts and group them by inbox.
+			ArrayList<K9Email> k9Emails = new ArrayList<K9Email>();
+			HashMap<String, ArrayList<K9Email>> k9InboxEmails = new HashMap<String, ArrayList<K9Email>>();
+			for(Intent k9Intent : k9Intents){
+				K9Email k9Email = parseK9Email(context, k9Intent);
+				if(k9Email == null){
+					if(missingK9Intents != null) missingK9Intents.add(k9Intent);
+					continue;
+				}
+				k9Emails.add(k9Email);
+				String inboxKey = k9Email.packageName + "/" + k9Email.accountName;
+				ArrayList<K9Email> inboxEmails = k9InboxEmails.get(inboxKey);
+				if(inboxEmails == null){
+					inboxEmails = new ArrayList<K9Email>();
+					k9InboxEmails.put(inboxKey, inboxEmails);
+				}
+				inboxEmails.add(k9Email);
 			}
-			//if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() Email PackageName: " + packageName);
-			sentDate = (Date) bundle.get(packageName + ".intent.extra.SENT_DATE");
-			//if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() Email SentDate: " + String.valueOf(sentDate));
-			timeStamp = sentDate.getTime();
-			//if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() Email TimeStamp: " + String.valueOf(timeStamp));
-			try{
-				messageSubject = bundle.getString(packageName + ".intent.extra.SUBJECT");
-			}catch(Exception ex){
-				messageSubject = "";
+            //Get the message bodies.
+			for(ArrayList<K9Email> inboxEmails : k9InboxEmails.values()){
+				readK9Inbox(context, inboxEmails);
 			}
-            //if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() Email MessageSubject: " + messageSubject);
-            sentFromAddress = parseFromEmailAddress(bundle.getString(packageName + ".intent.extra.FROM").toLowerCase());
-            //if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() Email SentFromAddress: " + sentFromAddress);			
-            accountName = bundle.getString(packageName + ".intent.extra.ACCOUNT");
-            //if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() Email AccountName: " + accountName);
-            //Get the message body.
-    		boolean emailFoundFlag = false;
-    		Cursor cursor = null;
-    		String emailURI = "content://" + packageName + ".messageprovider/inbox_messages/";
-            try{
-	    		if(packageName.equals("org.koxx.k9ForPureWidget")){
-	    			String accountUID = getK9ForPureEmailAccountUID(context, accountName);
-	    			emailURI = emailURI + accountUID;
-	            	//if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() EmailURI: " + emailURI);
-	        		final String[] projection = new String[] {"_id", "date", "sender", "subject", "preview", "account", "uri"};
-	        		final String selection = null;
-	        		final String[] selectionArgs = null;
-	        		final String sortOrder = "date DESC";
-	    		    cursor = context.getContentResolver().query(
-	    		    		Uri.parse(emailURI),
-	    		    		projection,
-	    		    		selection,
-	    					selectionArgs,
-	    					sortOrder);
-	    		    if(cursor == null){
-	    		    	Log.e(context, "K9Common.getK9MessagesFromIntent() Cursor is null. Exiting...");
-	    		    	return null;
-	    		    }
-		    		while(cursor.moveToNext()){
-	    				String accountNameTmp = cursor.getString(cursor.getColumnIndex("account"));
-		    			long timeStampTmp = cursor.getLong(cursor.getColumnIndex("date"));
-		    			//String subjectTmp = cursor.getString(cursor.getColumnIndex("subject"));    	    			
-		    			//if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() accountNameTmp: " + accountNameTmp + " accountName: " + accountName);
-		    			//if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() timeStampTmp: " + timeStampTmp + " timeStamp: " + timeStamp);
-		    			//if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() subjectTmp: " + subjectTmp + " messageSubject: " + messageSubject);
-		    			if(timeStampTmp == timeStamp && accountNameTmp.equals(accountName)){
-				    		messageID = cursor.getLong(cursor.getColumnIndex("_id"));
-				    		messageBody = cursor.getString(cursor.getColumnIndex("preview"));
-				    		k9EmailUri = cursor.getString(cursor.getColumnIndex("uri"));
-							k9EmailDelUri = emailURI + "/" + messageID;
-			    			//if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() k9EmailDelUri: " + k9EmailDelUri);
-				    		emailFoundFlag = true;	
-		    			}
-			    		if(emailFoundFlag){
-			    			break;
-			    		}
-		    		}
-		    		cursor.close();
-	    		}else{
-	            	final String[] projection = new String[] {"_id", "date", "sender", "subject", "preview", "account", "uri", "delUri"};
-	        		final String selection = "date=? AND account=?";
-	        		final String[] selectionArgs = new String[] {String.valueOf(timeStamp), accountName};
-	        		final String sortOrder = "date DESC";
-	    		    cursor = context.getContentResolver().query(
-	    		    		Uri.parse(emailURI),
-	    		    		projection,
-	    		    		selection,
-	    					selectionArgs,
-	    					sortOrder);
-	    		    if(cursor == null){
-	    		    	Log.e(context, "K9Common.getK9MessagesFromIntent() Cursor is null. Exiting...");
-	    		    	return null;
-	    		    }
-		    		while(cursor.moveToNext()){
-	    				String accountNameTmp = cursor.getString(cursor.getColumnIndex("account"));
-		    			long timeStampTmp = cursor.getLong(cursor.getColumnIndex("date"));
-		    			//String subjectTmp = cursor.getString(cursor.getColumnIndex("subject"));    	    			
-		    			//if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() accountNameTmp: " + accountNameTmp + " accountName: " + accountName);
-		    			//if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() timeStampTmp: " + timeStampTmp + " timeStamp: " + timeStamp);
-		    			//if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntent() subjectTmp: " + subjectTmp + " messageSubject: " + messageSubject);
-		    			if(timeStampTmp == timeStamp && accountNameTmp.equals(accountName)){
-				    		messageID = cursor.getLong(cursor.getColumnIndex("_id"));
-				    		messageBody = cursor.getString(cursor.getColumnIndex("preview"));
-				    		k9EmailUri = cursor.getString(cursor.getColumnIndex("uri"));
-				    		k9EmailDelUri = cursor.getString(cursor.getColumnIndex("delUri"));
-				    		emailFoundFlag = true;	
-		    			}
-			    		if(emailFoundFlag){
-			    			break;
-			    		}
+			for(K9Email k9Email : k9Emails){
+	            if(!k9Email.found){
+	            	if (_debug) Log.v(context, "K9Common.getK9MessagesFromIntents() No Email Found Matching The Date & Account.");
+					if(missingK9Intents != null) missingK9Intents.add(k9Email.intent);
+	            	continue;
+	            }
+	            String messageSubject = k9Email.messageSubject;
+	            String messageBody = k9Email.messageBody;
+	            String accountName = k9Email.accountName;
+	            if(messageSubject != null && !messageSubject.equals("")){
+		    		if(preferences.getBoolean(Constants.K9_INCLUDE_ACCOUNT_NAME_KEY, true)){
+						messageBody = "<b>" + context.getString(R.string.account) + ": " + accountName + "<br/>" + messageSubject + "</b><br/>" + messageBody.replace("\n", "<br/>").trim();
+		    		}else{
+						messageBody = "<b>" + messageSubject + "</b><br/>" + messageBody.replace("\n", "<br/>").trim();
 		    		}
-		    		cursor.close();
-	    		}
-    		}catch(Exception ex){
-    			Log.e(context, "K9Common.getK9MessagesFromIntent() CURSOR ERROR: " + ex.toString());
-    			if(cursor != null){
-    				cursor.close();
-    			}
-    		}
-            if(emailFoundFlag == false){
-            	Log.e(context, "K9Common.getK9MessagesFromIntent() No Email Found Matching The Date & Account.");
-            	return null;
-            }
-            if(messageSubject != null && !messageSubject.equals("")){
-	    		if(preferences.getBoolean(Constants.K9_INCLUDE_ACCOUNT_NAME_KEY, true)){
-					messageBody = "<b>" + context.getString(R.string.account) + ": " + accountName + "<br/>" + messageSubject + "</b><br/>" + messageBody.replace("\n", "<br/>").trim();
-	    		}else{
-					messageBody = "<b>" + messageSubject + "</b><br/>" + messageBody.replace("\n", "<br/>").trim();
-	    		}
-			}else{
-	    		if(preferences.getBoolean(Constants.K9_INCLUDE_ACCOUNT_NAME_KEY, true)){
-	    			messageBody = "<b>" + context.getString(R.string.account) + ": " + accountName + "</b><br/>" + messageBody;
-	    		}else{
-	    			messageBody = messageBody.replace("\n", "<br/>").trim();
-	    		}				
+				}else{
+		    		if(preferences.getBoolean(Constants.K9_INCLUDE_ACCOUNT_NAME_KEY, true)){
+		    			messageBody = "<b>" + context.getString(R.string.account) + ": " + accountName + "</b><br/>" + messageBody;
+		    		}else{
+		    			messageBody = messageBody.replace("\n", "<br/>").trim();
+		    		}				
+				}
+	            long timeStamp = Common.convertGMTToLocalTime(context, k9Email.timeStamp, true);
+	    		Bundle k9ContactInfoBundle = ContactsCommon.getContactsInfoByEmail(context, k9Email.sentFromAddress);
+				Bundle k9NotificationBundleSingle = new Bundle();
+				bundleCount++;
+				//Basic Notification Information.
+				k9NotificationBundleSingle.putString(Constants.BUNDLE_SENT_FROM_ADDRESS, k9Email.sentFromAddress);
+				k9NotificationBundleSingle.putString(Constants.BUNDLE_MESSAGE_BODY, messageBody);
+				k9NotificationBundleSingle.putLong(Constants.BUNDLE_MESSAGE_ID, k9Email.messageID);
+				k9NotificationBundleSingle.putLong(Constants.BUNDLE_TIMESTAMP, timeStamp);
+				k9NotificationBundleSingle.putString(Constants.BUNDLE_K9_EMAIL_URI, k9Email.k9EmailUri);
+				k9NotificationBundleSingle.putString(Constants.BUNDLE_K9_EMAIL_DEL_URI, k9Email.k9EmailDelUri);
+				k9NotificationBundleSingle.putString(Constants.BUNDLE_K9_EMAIL_ACCOUNT_NAME, accountName);
+				k9NotificationBundleSingle.putInt(Constants.BUNDLE_NOTIFICATION_TYPE, Constants.NOTIFICATION_TYPE_K9);
+				k9NotificationBundleSingle.putInt(Constants.BUNDLE_NOTIFICATION_SUB_TYPE, k9Email.notificationSubType);
+	    		if(k9ContactInfoBundle != null){
+	    			//Contact Information.
+	    			k9NotificationBundleSingle.putLong(Constants.BUNDLE_CONTACT_ID, k9ContactInfoBundle.getLong(Constants.BUNDLE_CONTACT_ID, -1));
+	    			k9NotificationBundleSingle.putString(Constants.BUNDLE_CONTACT_NAME, k9ContactInfoBundle.getString(Constants.BUNDLE_CONTACT_NAME));
+	    			k9NotificationBundleSingle.putLong(Constants.BUNDLE_PHOTO_ID, k9ContactInfoBundle.getLong(Constants.BUNDLE_PHOTO_ID, -1));
+	    			k9NotificationBundleSingle.putString(Constants.BUNDLE_LOOKUP_KEY, k9ContactInfoBundle.getString(Constants.BUNDLE_LOOKUP_KEY));
+				}
+	    		k9NotificationBundle.putBundle(Constants.BUNDLE_NOTIFICATION_BUNDLE_NAME + "_" + String.valueOf(bundleCount), k9NotificationBundleSingle);
 			}
-            timeStamp = Common.convertGMTToLocalTime(context, timeStamp, true);
-    		Bundle k9ContactInfoBundle = ContactsCommon.getContactsInfoByEmail(context, sentFromAddress);
-			//Basic Notification Information.
-			k9NotificationBundleSingle.putString(Constants.BUNDLE_SENT_FROM_ADDRESS, sentFromAddress);
-			k9NotificationBundleSingle.putString(Constants.BUNDLE_MESSAGE_BODY, messageBody);
-			k9NotificationBundleSingle.putLong(Constants.BUNDLE_MESSAGE_ID, messageID);
-			k9NotificationBundleSingle.putLong(Constants.BUNDLE_TIMESTAMP, timeStamp);
-			k9NotificationBundleSingle.putString(Constants.BUNDLE_K9_EMAIL_URI, k9EmailUri);
-			k9NotificationBundleSingle.putString(Constants.BUNDLE_K9_EMAIL_DEL_URI, k9EmailDelUri);
-			k9NotificationBundleSingle.putString(Constants.BUNDLE_K9_EMAIL_ACCOUNT_NAME, accountName);
-			k9NotificationBundleSingle.putInt(Constants.BUNDLE_NOTIFICATION_TYPE, Constants.NOTIFICATION_TYPE_K9);
-			k9NotificationBundleSingle.putInt(Constants.BUNDLE_NOTIFICATION_SUB_TYPE, notificationSubType);
-    		if(k9ContactInfoBundle != null){
-    			//Contact Information.
-    			k9NotificationBundleSingle.putLong(Constants.BUNDLE_CONTACT_ID, k9ContactInfoBundle.getLong(Constants.BUNDLE_CONTACT_ID, -1));
-    			k9NotificationBundleSingle.putString(Constants.BUNDLE_CONTACT_NAME, k9ContactInfoBundle.getString(Constants.BUNDLE_CONTACT_NAME));
-    			k9NotificationBundleSingle.putLong(Constants.BUNDLE_PHOTO_ID, k9ContactInfoBundle.getLong(Constants.BUNDLE_PHOTO_ID, -1));
-    			k9NotificationBundleSingle.putString(Constants.BUNDLE_LOOKUP_KEY, k9ContactInfoBundle.getString(Constants.BUNDLE_LOOKUP_KEY));
+			if(bundleCount == 0){
+				return null;
 			}
-    		k9NotificationBundle.putBundle(Constants.BUNDLE_NOTIFICATION_BUNDLE_NAME + "_" + String.valueOf(bundleCount), k9NotificationBundleSingle);
     		k9NotificationBundle.putInt(Constants.BUNDLE_NOTIFICATION_BUNDLE_COUNT, bundleCount);
     		return k9NotificationBundle;
 		}catch(Exception ex){
-			Log.e(context, "K9Common.getK9MessagesFromIntent() ERROR: " + ex.toString());
+			Log.e(context, "K9Common.getK9MessagesFromIntents() ERROR: " + ex.toString());
 			return null;
 		}
 	}
+	
+	/**
+	 * Add an incoming K9 broadcast to the burst that is waiting to be read.
+	 * 
+	 * @param intent - The incoming K9 intent.
+	 * 
+	 * @return boolean - Returns true if this broadcast starts a new burst and the service needs to be started.
+	 */
+	public static boolean addPendingK9Broadcast(Intent intent){
+		synchronized(_pendingK9Broadcasts){
+			_pendingK9Broadcasts.add(new Intent(intent));
+			return _pendingK9Broadcasts.size() == 1;
+		}
+	}
+	
+	/**
+	 * Take all the K9 broadcasts of the burst that is waiting to be read.
+	 * The next incoming broadcast will start a new burst.
+	 * 
+	 * @return ArrayList<Intent> - The K9 broadcasts that were waiting.
+	 */
+	public static ArrayList<Intent> takePendingK9Broadcasts(){
+		synchronized(_pendingK9Broadcasts){
+			ArrayList<Intent> pendingK9Broadcasts = new ArrayList<Intent>(_pendingK9Broadcasts);
+			_pendingK9Broadcasts.clear();
+			return pendingK9Broadcasts;
+		}
+	}
 
+	/**
+	 * Determine if the message of an incoming K9 broadcast can be read from the K9 client yet.
+	 * 
+	 * @param context - The application context.
+	 * @param bundle - Bundle from the incoming intent.
+	 * @param intentAction - The action of the incoming intent.
+	 * 
+	 * @return boolean - Returns true if the message is in the K9 client inbox.
+	 */
+	public static boolean isK9MessageAvailable(Context context, Bundle bundle, String intentAction){
+		_debug = Log.getDebug(context);
+		Cursor cursor = null;
+		try{
+			String packageName = getK9PackageName(intentAction);
+			long timeStamp = ((Date) bundle.get(packageName + ".intent.extra.SENT_DATE")).getTime();
+			String accountName = bundle.getString(packageName + ".intent.extra.ACCOUNT");
+			String emailURI = "content://" + packageName + ".messageprovider/inbox_messages/";
+			if(packageName.equals("org.koxx.k9ForPureWidget")){
+				String accountUID = getK9ForPureEmailAccountUID(context, accountName);
+				if(accountUID == null){
+					return false;
+				}
+				emailURI = emailURI + accountUID;
+			}
+			cursor = queryK9Message(context, Uri.parse(emailURI), new String[] {"_id", "date", "account"}, accountName, timeStamp, timeStamp);
+			if(cursor == null){
+				return false;
+			}
+			boolean emailFoundFlag = false;
+			while(cursor.moveToNext()){
+				if(cursor.getLong(cursor.getColumnIndex("date")) == timeStamp && accountName.equals(cursor.getString(cursor.getColumnIndex("account")))){
+					emailFoundFlag = true;
+					break;
+				}
+			}
+			cursor.close();
+			return emailFoundFlag;
+		}catch(Exception ex){
+			Log.e(context, "K9Common.isK9MessageAvailable() ERROR: " + ex.toString());
+			if(cursor != null){
+				cursor.close();
+			}
+			return false;
+		}
+	}
+	
 	/**
 	 * Start the intent for any K9 email application to view the email inbox.
 	 * 
@@ -399,16 +412,181 @@ public class K9Common {
 		}
 	}
 	
+	/**
+	 * Get the package name of the K9 client that sent the broadcast.
+	 * 
+	 * @param intentAction - The action of the incoming intent.
+	 * 
+	 * @return String - The package name of the K9 client.
+	 */
+	private static String getK9PackageName(String intentAction){
+		if(intentAction.startsWith(Constants.INTENT_ACTION_KAITEN)){
+			return "com.kaitenmail";
+		}else if(intentAction.startsWith(Constants.INTENT_ACTION_K9_FOR_PURE)){
+			return "org.koxx.k9ForPureWidget";
+		}else{
+			return "com.fsck.k9";
+		}
+	}
+	
+	/**
+	 * Parse an incoming K9 broadcast.
+	 * 
+	 * @param context - The application context.
+	 * @param k9Intent - The incoming K9 intent.
+	 * 
+	 * @return K9Email - The K9 email announced by the broadcast or null if the broadcast can't be read.
+	 */
+	private static K9Email parseK9Email(Context context, Intent k9Intent){
+		try{
+			Bundle bundle = k9Intent.getExtras();
+			String intentAction = k9Intent.getAction();
+			K9Email k9Email = new K9Email();
+			k9Email.intent = k9Intent;
+			k9Email.notificationSubType = Constants.NOTIFICATION_TYPE_K9_MAIL;
+			if(intentAction.startsWith(Constants.INTENT_ACTION_KAITEN)){
+				k9Email.notificationSubType = Constants.NOTIFICATION_TYPE_KAITEN_MAIL;
+			}else if(intentAction.startsWith(Constants.INTENT_ACTION_K9)){
+				k9Email.notificationSubType = Constants.NOTIFICATION_TYPE_K9_MAIL;
+			}else if(intentAction.startsWith(Constants.INTENT_ACTION_K9_FOR_PURE)){
+				k9Email.notificationSubType = Constants.NOTIFICATION_TYPE_K9_FOR_PURE;
+			}
+			String packageName = getK9PackageName(intentAction);
+			k9Email.packageName = packageName;
+			k9Email.timeStamp = ((Date) bundle.get(packageName + ".intent.extra.SENT_DATE")).getTime();
+			try{
+				k9Email.messageSubject = bundle.getString(packageName + ".intent.extra.SUBJECT");
+			}catch(Exception ex){
+				k9Email.messageSubject = "";
+			}
+			k9Email.sentFromAddress = parseFromEmailAddress(bundle.getString(packageName + ".intent.extra.FROM").toLowerCase());
+			k9Email.accountName = bundle.getString(packageName + ".intent.extra.ACCOUNT");
+			return k9Email;
+		}catch(Exception ex){
+			Log.e(context, "K9Common.parseK9Email() ERROR: " + ex.toString());
+			return null;
+		}
+	}
+	
+	/**
+	 * Read the messages of a K9 client inbox with a single query.
+	 * The K9 emails must all belong to the same K9 client and account.
+	 * 
+	 * @param context - The application context.
+	 * @param inboxEmails - The K9 emails to look up. The emails that are found are updated.
+	 */
+	private static void readK9Inbox(Context context, ArrayList<K9Email> inboxEmails){
+		K9Email firstEmail = inboxEmails.get(0);
+		String packageName = firstEmail.packageName;
+		String accountName = firstEmail.accountName;
+		boolean k9ForPure = packageName.equals("org.koxx.k9ForPureWidget");
+		String emailURI = "content://" + packageName + ".messageprovider/inbox_messages/";
+		long startTime = firstEmail.timeStamp;
+		long endTime = firstEmail.timeStamp;
+		for(K9Email k9Email : inboxEmails){
+			if(k9Email.timeStamp < startTime) startTime = k9Email.timeStamp;
+			if(k9Email.timeStamp > endTime) endTime = k9Email.timeStamp;
+		}
+		Cursor cursor = null;
+		int emailFoundCount = 0;
+        try{
+    		if(k9ForPure){
+    			String accountUID = getK9ForPureEmailAccountUID(context, accountName);
+    			if(accountUID == null){
+    		    	Log.e(context, "K9Common.readK9Inbox() Account UID not found. Exiting...");
+    		    	return;
+    			}
+    			emailURI = emailURI + accountUID;
+    		}
+            //if (_debug) Log.v(context, "K9Common.readK9Inbox() EmailURI: " + emailURI);
+        	final String[] projection = k9ForPure ? new String[] {"_id", "date", "sender", "subject", "preview", "account", "uri"} : new String[] {"_id", "date", "sender", "subject", "preview", "account", "uri", "delUri"};
+		    cursor = queryK9Message(context, Uri.parse(emailURI), projection, accountName, startTime, endTime);
+		    if(cursor == null){
+		    	Log.e(context, "K9Common.readK9Inbox() Cursor is null. Exiting...");
+		    	return;
+		    }
+		    //Providers that ignore the selection return the whole inbox, so the match is still checked here.
+    		while(cursor.moveToNext() && emailFoundCount < inboxEmails.size()){
+				String accountNameTmp = cursor.getString(cursor.getColumnIndex("account"));
+    			long timeStampTmp = cursor.getLong(cursor.getColumnIndex("date"));
+    			if(!accountName.equals(accountNameTmp)){
+    				continue;
+    			}
+    			for(K9Email k9Email : inboxEmails){
+	    			if(!k9Email.found && timeStampTmp == k9Email.timeStamp){
+	    				k9Email.messageID = cursor.getLong(cursor.getColumnIndex("_id"));
+	    				k9Email.messageBody = cursor.getString(cursor.getColumnIndex("preview"));
+	    				k9Email.k9EmailUri = cursor.getString(cursor.getColumnIndex("uri"));
+			    		if(k9ForPure){
+			    			k9Email.k9EmailDelUri = emailURI + "/" + k9Email.messageID;
+			    		}else{
+			    			k9Email.k9EmailDelUri = cursor.getString(cursor.getColumnIndex("delUri"));
+			    		}
+			    		k9Email.found = true;
+			    		emailFoundCount++;
+			    		break;
+	    			}
+    			}
+    		}
+    		cursor.close();
+    		if(emailFoundCount == 0 && k9ForPure){
+    			//The account may have been removed or added again with a new UID.
+    			clearK9ForPureAccountUIDs();
+    		}
+		}catch(Exception ex){
+			Log.e(context, "K9Common.readK9Inbox() CURSOR ERROR: " + ex.toString());
+			if(cursor != null){
+				cursor.close();
+			}
+		}
+	}
+	
+	/**
+	 * Query the inbox of a K9 client for unread messages.
+	 * The messages are selected by their account and date range. If the provider can't filter on the unread state, 
+	 * the messages are selected by their account and date range only.
+	 * 
+	 * @param context - The application context.
+	 * @param emailURI - The inbox URI.
+	 * @param projection - The columns to read.
+	 * @param accountName - The name of the account we are working with.
+	 * @param startTime - The date of the oldest message.
+	 * @param endTime - The date of the newest message.
+	 * 
+	 * @return Cursor - The messages that matched.
+	 */
+	private static Cursor queryK9Message(Context context, Uri emailURI, String[] projection, String accountName, long startTime, long endTime){
+		final String[] selectionArgs = new String[] {accountName, String.valueOf(startTime), String.valueOf(endTime)};
+		final String sortOrder = "date DESC";
+		try{
+			return context.getContentResolver().query(emailURI, projection, "account=? AND date>=? AND date<=? AND unread=1", selectionArgs, sortOrder);
+		}catch(Exception ex){
+			if (_debug) Log.v(context, "K9Common.queryK9Message() Unread Selection Not Supported: " + ex.toString());
+			return context.getContentResolver().query(emailURI, projection, "account=? AND date>=? AND date<=?", selectionArgs, sortOrder);
+		}
+	}
+	
+	/**
+	 * Clear the cached K9 For Pure account UIDs.
+	 */
+	private static synchronized void clearK9ForPureAccountUIDs(){
+		_k9ForPureAccountUIDs = null;
+	}
+	
 	/**
 	 * Get the account UID associated with the provided account name.
+	 * The account UIDs are cached and read again when an account is not found.
 	 * 
 	 * @param context - The application context.
 	 * @param accountName - The name of the account we are working with.
 	 * 
 	 * @return String - The account UID associated with this account name.
 	 */
-	private static String getK9ForPureEmailAccountUID(Context context, String accountName){
-		String accountUID = null;
+	private static synchronized String getK9ForPureEmailAccountUID(Context context, String accountName){
+		if(_k9ForPureAccountUIDs != null && _k9ForPureAccountUIDs.containsKey(accountName)){
+			return _k9ForPureAccountUIDs.get(accountName);
+		}
+		HashMap<String, String> accountUIDs = new HashMap<String, String>();
 		Cursor cursor = null;
         try{
     		final String[] projection = new String[] {"accountName", "accountUuid"};
@@ -425,12 +603,10 @@ public class K9Common {
 		    	Log.e(context, "K9Common.getK9ForPureEmailAccountUID() Cursor is null. Exiting...");
 		    	return null;
 		    }
+		    int accountNameColumnIndex = cursor.getColumnIndex("accountName");
+		    int accountUIDColumnIndex = cursor.getColumnIndex("accountUuid");
     		while(cursor.moveToNext()){  
-    			String accountNameTmp = cursor.getString(cursor.getColumnIndex("accountName"));
-    			if(accountNameTmp.equals(accountName)){
-	    			accountUID = cursor.getString(cursor.getColumnIndex("accountUuid"));
-	    			break;
-    			}
+    			accountUIDs.put(cursor.getString(accountNameColumnIndex), cursor.getString(accountUIDColumnIndex));
     		}
     		cursor.close();
 		}catch(Exception ex){
@@ -440,7 +616,26 @@ public class K9Common {
 			}
 			return null;
 		}
-        return accountUID;
+        _k9ForPureAccountUIDs = accountUIDs;
+        return accountUIDs.get(accountName);
+	}
+	
+	/**
+	 * A K9 email announced by an incoming K9 broadcast.
+	 */
+	private static class K9Email {
+		public Intent intent;
+		public String packageName;
+		public int notificationSubType;
+		public long timeStamp;
+		public String accountName;
+		public String sentFromAddress;
+		public String messageSubject;
+		public boolean found;
+		public long messageID = -1;
+		public String messageBody;
+		public String k9EmailUri;
+		public String k9EmailDelUri;
 	}
 
 }
@@ -27,6 +27,9 @@ public class PhoneCommon {
     //================================================================================
 	
 	private static boolean _debug = false;
+	private static volatile PhoneNumberFormat _phoneNumberFormat = null;
+	
+	private static final String FORMATTING_CHARACTERS = " -.,()/xX";
 	
 	//================================================================================
 	// Public Methods
@@ -328,249 +331,39 @@ public class PhoneCommon {
 	 * @return String - Formatted phone number string.
 	 */
 	public static String formatPhoneNumber(Context context, String inputPhoneNumber){
+		if(inputPhoneNumber == null){
+			Log.e(context, "PhoneCommon.formatPhoneNumber() InputPhoneNumber is null. exiting...");
+			return null;
+		}
+		StringBuilder outputPhoneNumber = new StringBuilder(inputPhoneNumber.length() + 6);
+		return formatPhoneNumber(context, inputPhoneNumber, outputPhoneNumber).toString();
+	}
+	
+	/**
+	 * Function to format phone numbers into an existing StringBuilder.
+	 * 
+	 * @param context - The current context of this Activity.
+	 * @param inputPhoneNumber - Phone number to be formatted.
+	 * @param outputPhoneNumber - The StringBuilder the formatted phone number is appended to.
+	 * 
+	 * @return StringBuilder - The StringBuilder that was passed in.
+	 */
+	public static StringBuilder formatPhoneNumber(Context context, String inputPhoneNumber, StringBuilder outputPhoneNumber){
+		int outputStart = outputPhoneNumber.length();
 		try{
 			if(inputPhoneNumber == null){
 				Log.e(context, "PhoneCommon.formatPhoneNumber() InputPhoneNumber is null. exiting...");
-				return null;
+				return outputPhoneNumber;
 			}
 			if(inputPhoneNumber.equals(context.getString(R.string.private_number_text))){
-				return inputPhoneNumber;
+				return outputPhoneNumber.append(inputPhoneNumber);
 			}
-			SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
 			inputPhoneNumber = PhoneCommon.removePhoneNumberFormatting(inputPhoneNumber);
-			StringBuilder outputPhoneNumber = new StringBuilder("");		
-			int phoneNumberFormatPreference = Integer.parseInt(preferences.getString(Constants.PHONE_NUMBER_FORMAT_KEY, Constants.PHONE_NUMBER_FORMAT_DEFAULT));
-			String numberSeparator = "-";
-			if(phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_7 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_8 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_9 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_10 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_16 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_20 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_23){
-				numberSeparator = ".";
-			}else if(phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_11 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_12 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_13 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_14 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_17 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_18 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_21 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_24){
-				numberSeparator = " ";
-			}else if(phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_5){
-				numberSeparator = "";
-			}
-			if(phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_1 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_7 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_11){
-				if(inputPhoneNumber.length() >= 10){
-					//Format ###-###-#### (e.g.123-456-7890)
-					//Format ###-###-#### (e.g.123.456.7890)
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 4, inputPhoneNumber.length()));
-					outputPhoneNumber.insert(0, numberSeparator);
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 7, inputPhoneNumber.length() - 4));
-					outputPhoneNumber.insert(0, numberSeparator);
-					if(inputPhoneNumber.length() == 10){
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 7));
-					}else{
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 10, inputPhoneNumber.length() - 7));
-						outputPhoneNumber.insert(0, numberSeparator);
-						if(preferences.getBoolean(Constants.PHONE_NUMBER_FORMAT_10_DIGITS_ONLY_KEY , false)){
-							outputPhoneNumber.insert(0, "0");
-						}else{
-							outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 10));
-						}
-					}
-				}else{
-					outputPhoneNumber.append(inputPhoneNumber);
-				}
-			}else if(phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_2 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_8 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_12){
-				if(inputPhoneNumber.length() >= 10){
-					//Format ##-###-##### (e.g.12-345-67890)
-					//Format ##.###.##### (e.g.12.345.67890)
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 5, inputPhoneNumber.length()));
-					outputPhoneNumber.insert(0, numberSeparator);
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 8, inputPhoneNumber.length() - 5));
-					outputPhoneNumber.insert(0, numberSeparator);
-					if(inputPhoneNumber.length() == 10){
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 8));
-					}else{
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 10, inputPhoneNumber.length() - 8));
-						outputPhoneNumber.insert(0, numberSeparator);
-						if(preferences.getBoolean(Constants.PHONE_NUMBER_FORMAT_10_DIGITS_ONLY_KEY , false)){
-							outputPhoneNumber.insert(0, "0");
-						}else{
-							outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 10));
-						}
-					}
-				}else{
-					outputPhoneNumber.append(inputPhoneNumber);
-				}
-			}else if(phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_3 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_9 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_13){
-				if(inputPhoneNumber.length() >= 10){
-					//Format ##-###-###### (e.g.01-234-567890)
-					//Format ##.###.###### (e.g.01.234.567890)
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 6, inputPhoneNumber.length()));
-					outputPhoneNumber.insert(0, numberSeparator);
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 9, inputPhoneNumber.length() - 6));
-					outputPhoneNumber.insert(0, numberSeparator);
-					if(inputPhoneNumber.length() == 10){
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 9));
-					}else if(inputPhoneNumber.length() == 11){
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 9));
-					}else{
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 11, inputPhoneNumber.length() - 9));
-						outputPhoneNumber.insert(0, numberSeparator);
-						if(preferences.getBoolean(Constants.PHONE_NUMBER_FORMAT_10_DIGITS_ONLY_KEY , false)){
-							outputPhoneNumber.insert(0, "0");
-						}else{
-							outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 11));
-						}
-					}
-				}else{
-					outputPhoneNumber.append(inputPhoneNumber);
-				}
-			}else if(phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_4 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_10 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_14){
-				if(inputPhoneNumber.length() >= 10){
-					//Format ##-##-##-##-## (e.g.12-34-56-78-90)
-					//Format ##.##.##.##.## (e.g.12.34.56.78.90)
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 2, inputPhoneNumber.length()));
-					outputPhoneNumber.insert(0, numberSeparator);
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 4, inputPhoneNumber.length() - 2));
-					outputPhoneNumber.insert(0, numberSeparator);
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 6, inputPhoneNumber.length() - 4));
-					outputPhoneNumber.insert(0, numberSeparator);
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 8, inputPhoneNumber.length() - 6));
-					outputPhoneNumber.insert(0, numberSeparator);
-					if(inputPhoneNumber.length() == 10){
-						outputPhoneNumber.insert(0,inputPhoneNumber.substring(0, inputPhoneNumber.length() - 8));
-					}else{
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 10, inputPhoneNumber.length() - 8));
-						outputPhoneNumber.insert(0, numberSeparator);
-						if(preferences.getBoolean(Constants.PHONE_NUMBER_FORMAT_10_DIGITS_ONLY_KEY , false)){
-							outputPhoneNumber.insert(0, "0");
-						}else{
-							outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 10));
-						}
-					}
-				}else{
-					outputPhoneNumber.append(inputPhoneNumber);
-				}
-			}else if(phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_15 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_16 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_17){
-				if(inputPhoneNumber.length() >= 10){
-					//Format ###-####-#### (e.g.012-3456-7890)
-					//Format ###.####.#### (e.g.012.3456.7890)
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 4, inputPhoneNumber.length()));
-					outputPhoneNumber.insert(0, numberSeparator);
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 8, inputPhoneNumber.length() - 4));
-					outputPhoneNumber.insert(0, numberSeparator);
-					if(inputPhoneNumber.length() == 10){
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 8));
-					}else{
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 10, inputPhoneNumber.length() - 8));
-						outputPhoneNumber.insert(0, numberSeparator);
-						if(preferences.getBoolean(Constants.PHONE_NUMBER_FORMAT_10_DIGITS_ONLY_KEY , false)){
-							outputPhoneNumber.insert(0, "0");
-						}else{
-							outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 10));
-						}
-					}
-				}else{
-					outputPhoneNumber.append(inputPhoneNumber);
-				}
-			}else if( phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_19 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_20 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_21){
-				if(inputPhoneNumber.length() >= 10){
-					//Format ####-####### (e.g.0123-4567890)
-					//Format ####.####### (e.g.0123.4567890)
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 7, inputPhoneNumber.length()));
-					outputPhoneNumber.insert(0, numberSeparator);
-					if(inputPhoneNumber.length() == 10){
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 7));
-					}else{
-						if(preferences.getBoolean(Constants.PHONE_NUMBER_FORMAT_10_DIGITS_ONLY_KEY , false)){
-							outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 10, inputPhoneNumber.length() - 7));
-							outputPhoneNumber.insert(0, "0");
-						}else{
-							outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 7));
-						}
-					}
-				}else{
-					outputPhoneNumber.append(inputPhoneNumber);
-				}
-			}else if(phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_22 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_23 || 
-					phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_24){
-				if(inputPhoneNumber.length() >= 10){
-					//Format ####-###-#### (e.g.1234-567-890)
-					//Format ####.###.#### (e.g.1234.567-890)
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 3, inputPhoneNumber.length()));
-					outputPhoneNumber.insert(0, numberSeparator);
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 6, inputPhoneNumber.length() - 3));
-					outputPhoneNumber.insert(0, numberSeparator);
-					if(inputPhoneNumber.length() == 10){
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 6));
-					}else{
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 10, inputPhoneNumber.length() - 6));
-						outputPhoneNumber.insert(0, numberSeparator);
-						if(preferences.getBoolean(Constants.PHONE_NUMBER_FORMAT_10_DIGITS_ONLY_KEY , false)){
-							outputPhoneNumber.insert(0, "0");
-						}else{
-							outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 10));
-						}
-					}
-				}else{
-					outputPhoneNumber.append(inputPhoneNumber);
-				}
-			}else if(phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_5){
-				//Format ########## (e.g.1234567890)
-				outputPhoneNumber.append(inputPhoneNumber);
-			}else if(phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_18){
-				//Format (####) ####### (e.g.(0123) 4567890)
-				outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 7, inputPhoneNumber.length()));
-				outputPhoneNumber.insert(0, numberSeparator);
-				outputPhoneNumber.insert(0, ") ");
-				outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 7));
-				outputPhoneNumber.insert(0, "(");
-			}else if(phoneNumberFormatPreference == Constants.PHONE_NUMBER_FORMAT_6){
-				if(inputPhoneNumber.length() >= 10){
-					//Format (###) ###-#### (e.g.(123) 456-7890)
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 4, inputPhoneNumber.length()));
-					outputPhoneNumber.insert(0, numberSeparator);
-					outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 7, inputPhoneNumber.length() - 4));
-					outputPhoneNumber.insert(0, ") ");
-					if(inputPhoneNumber.length() == 10){
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 7));
-						outputPhoneNumber.insert(0, "(");
-					}else{
-						outputPhoneNumber.insert(0, inputPhoneNumber.substring(inputPhoneNumber.length() - 10, inputPhoneNumber.length() - 7));
-						outputPhoneNumber.insert(0, " (");
-						if(preferences.getBoolean(Constants.PHONE_NUMBER_FORMAT_10_DIGITS_ONLY_KEY , false)){
-							outputPhoneNumber.insert(0, "0");
-						}else{
-							outputPhoneNumber.insert(0, inputPhoneNumber.substring(0, inputPhoneNumber.length() - 10));
-						}
-					}
-				}else{
-					outputPhoneNumber.append(inputPhoneNumber);
-				}
-			}else{
-				outputPhoneNumber.append(inputPhoneNumber);
-			}
-			return outputPhoneNumber.toString();
+			return getPhoneNumberFormat(context).format(inputPhoneNumber, outputPhoneNumber);
 		}catch(Exception ex){
 			Log.e(context, "PhoneCommon.formatPhoneNumber() ERROR: " + ex.toString());
-			return inputPhoneNumber;
+			outputPhoneNumber.setLength(outputStart);
+			return outputPhoneNumber.append(inputPhoneNumber);
 		}
 	}
 	
@@ -587,15 +380,21 @@ public class PhoneCommon {
 			if(phoneNumber == null || phoneNumber.length() < 1){
 				return phoneNumber;
 			}
-			phoneNumber = phoneNumber.replace(" ", "");
-			phoneNumber = phoneNumber.replace("-", "");
-			phoneNumber = phoneNumber.replace(".", "");
-			phoneNumber = phoneNumber.replace(",", "");
-			phoneNumber = phoneNumber.replace("(", "");
-			phoneNumber = phoneNumber.replace(")", "");
-			phoneNumber = phoneNumber.replace("/", "");
-			phoneNumber = phoneNumber.replace("x", "");
-			phoneNumber = phoneNumber.replace("X", "");
+			int length = phoneNumber.length();
+			StringBuilder strippedPhoneNumber = null;
+			for(int i = 0; i < length; i++){
+				char currentChar = phoneNumber.charAt(i);
+				boolean isFormatting = FORMATTING_CHARACTERS.indexOf(currentChar) >= 0;
+				if(isFormatting && strippedPhoneNumber == null){
+					strippedPhoneNumber = new StringBuilder(length);
+					strippedPhoneNumber.append(phoneNumber, 0, i);
+				}else if(!isFormatting && strippedPhoneNumber != null){
+					strippedPhoneNumber.append(currentChar);
+				}
+			}
+			if(strippedPhoneNumber != null){
+				phoneNumber = strippedPhoneNumber.toString();
+			}
 			return phoneNumber.trim();
 		}catch(Exception ex){
 			return phoneNumber;
@@ -606,4 +405,24 @@ public class PhoneCommon {
 	// Private Methods
 	//================================================================================
 	
+	/**
+	 * Get the compiled phone number format for the current preferences.
+	 * The template is only rebuilt when the format preferences change.
+	 * 
+	 * @param context - The current context of this Activity.
+	 * 
+	 * @return PhoneNumberFormat - The compiled phone number format.
+	 */
+	private static PhoneNumberFormat getPhoneNumberFormat(Context context){
+		SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+		int phoneNumberFormatPreference = Integer.parseInt(preferences.getString(Constants.PHONE_NUMBER_FORMAT_KEY, Constants.PHONE_NUMBER_FORMAT_DEFAULT));
+		boolean tenDigitsOnly = preferences.getBoolean(Constants.PHONE_NUMBER_FORMAT_10_DIGITS_ONLY_KEY, false);
+		PhoneNumberFormat phoneNumberFormat = _phoneNumberFormat;
+		if(phoneNumberFormat == null || !phoneNumberFormat.matches(phoneNumberFormatPreference, tenDigitsOnly)){
+			phoneNumberFormat = new PhoneNumberFormat(phoneNumberFormatPreference, tenDigitsOnly);
+			_phoneNumberFormat = phoneNumberFormat;
+		}
+		return phoneNumberFormat;
+	}
+	
 }
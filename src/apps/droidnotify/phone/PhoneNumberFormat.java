@@ -0,0 +1,203 @@
+package apps.droidnotify.phone;
+
+import apps.droidnotify.common.Constants;
+
+/**
+ * A compiled phone number format template.
+ * 
+ * The template is built once from the users phone number format preference and can then be applied
+ * to any number of phone numbers by appending digit groups into a supplied StringBuilder.
+ * 
+ * @author Camille Svigny
+ */
+public class PhoneNumberFormat {
+
+	//================================================================================
+    // Properties
+    //================================================================================
+
+	private int _formatPreference = -1;
+	private boolean _tenDigitsOnly = false;
+	private int[] _groupSizes = null;
+	private int[] _groupTailLengths = null;
+	private String[] _groupSeparators = null;
+	private String _prefixSeparator = "";
+	private boolean _leadingGroupOpen = false;
+	private int _minimumLength = 10;
+
+	//================================================================================
+	// Constructors
+	//================================================================================
+
+	/**
+	 * PhoneNumberFormat constructor.
+	 * 
+	 * @param formatPreference - The phone number format preference value.
+	 * @param tenDigitsOnly - True if numbers longer than 10 digits should have their prefix replaced by a "0".
+	 */
+	public PhoneNumberFormat(int formatPreference, boolean tenDigitsOnly){
+		_formatPreference = formatPreference;
+		_tenDigitsOnly = tenDigitsOnly;
+		compile();
+	}
+
+	//================================================================================
+	// Public Methods
+	//================================================================================
+
+	/**
+	 * Determines if this template was compiled from the given preference values.
+	 * 
+	 * @param formatPreference - The phone number format preference value.
+	 * @param tenDigitsOnly - The 10 digits only preference value.
+	 * 
+	 * @return boolean - Returns true if this template matches the given preferences.
+	 */
+	public boolean matches(int formatPreference, boolean tenDigitsOnly){
+		return _formatPreference == formatPreference && _tenDigitsOnly == tenDigitsOnly;
+	}
+
+	/**
+	 * Format a phone number that has already had its formatting removed.
+	 * 
+	 * @param phoneNumber - The unformatted phone number.
+	 * @param outputPhoneNumber - The StringBuilder the formatted phone number is appended to.
+	 * 
+	 * @return StringBuilder - The StringBuilder that was passed in.
+	 */
+	public StringBuilder format(String phoneNumber, StringBuilder outputPhoneNumber){
+		int length = phoneNumber.length();
+		if(_groupSizes == null || length < _minimumLength){
+			return outputPhoneNumber.append(phoneNumber);
+		}
+		int groupCount = _groupSizes.length;
+		int start = 0;
+		if(!_leadingGroupOpen){
+			int prefixLength = length - (_groupTailLengths[0] + _groupSizes[0]);
+			if(prefixLength > 0){
+				if(_tenDigitsOnly){
+					outputPhoneNumber.append('0');
+				}else{
+					outputPhoneNumber.append(phoneNumber, 0, prefixLength);
+				}
+				outputPhoneNumber.append(_prefixSeparator);
+				start = prefixLength;
+			}
+		}
+		for(int i = 0; i < groupCount; i++){
+			int end = length - _groupTailLengths[i];
+			outputPhoneNumber.append(_groupSeparators[i]);
+			outputPhoneNumber.append(phoneNumber, start, end);
+			start = end;
+		}
+		return outputPhoneNumber;
+	}
+
+	//================================================================================
+	// Private Methods
+	//================================================================================
+
+	/**
+	 * Build the digit groups and separators for the format preference.
+	 */
+	private void compile(){
+		String numberSeparator = "-";
+		switch(_formatPreference){
+			case Constants.PHONE_NUMBER_FORMAT_7: case Constants.PHONE_NUMBER_FORMAT_8: case Constants.PHONE_NUMBER_FORMAT_9:
+			case Constants.PHONE_NUMBER_FORMAT_10: case Constants.PHONE_NUMBER_FORMAT_16: case Constants.PHONE_NUMBER_FORMAT_20:
+			case Constants.PHONE_NUMBER_FORMAT_23:{
+				numberSeparator = ".";
+				break;
+			}
+			case Constants.PHONE_NUMBER_FORMAT_11: case Constants.PHONE_NUMBER_FORMAT_12: case Constants.PHONE_NUMBER_FORMAT_13:
+			case Constants.PHONE_NUMBER_FORMAT_14: case Constants.PHONE_NUMBER_FORMAT_17: case Constants.PHONE_NUMBER_FORMAT_18:
+			case Constants.PHONE_NUMBER_FORMAT_21: case Constants.PHONE_NUMBER_FORMAT_24:{
+				numberSeparator = " ";
+				break;
+			}
+		}
+		_prefixSeparator = numberSeparator;
+		switch(_formatPreference){
+			case Constants.PHONE_NUMBER_FORMAT_1: case Constants.PHONE_NUMBER_FORMAT_7: case Constants.PHONE_NUMBER_FORMAT_11:{
+				//Format ###-###-#### (e.g.123-456-7890)
+				setGroups(new int[]{3, 3, 4}, numberSeparator);
+				break;
+			}
+			case Constants.PHONE_NUMBER_FORMAT_2: case Constants.PHONE_NUMBER_FORMAT_8: case Constants.PHONE_NUMBER_FORMAT_12:{
+				//Format ##-###-##### (e.g.12-345-67890)
+				setGroups(new int[]{2, 3, 5}, numberSeparator);
+				break;
+			}
+			case Constants.PHONE_NUMBER_FORMAT_3: case Constants.PHONE_NUMBER_FORMAT_9: case Constants.PHONE_NUMBER_FORMAT_13:{
+				//Format ##-###-###### (e.g.01-234-567890)
+				setGroups(new int[]{2, 3, 6}, numberSeparator);
+				break;
+			}
+			case Constants.PHONE_NUMBER_FORMAT_4: case Constants.PHONE_NUMBER_FORMAT_10: case Constants.PHONE_NUMBER_FORMAT_14:{
+				//Format ##-##-##-##-## (e.g.12-34-56-78-90)
+				setGroups(new int[]{2, 2, 2, 2, 2}, numberSeparator);
+				break;
+			}
+			case Constants.PHONE_NUMBER_FORMAT_15: case Constants.PHONE_NUMBER_FORMAT_16: case Constants.PHONE_NUMBER_FORMAT_17:{
+				//Format ###-####-#### (e.g.012-3456-7890)
+				setGroups(new int[]{2, 4, 4}, numberSeparator);
+				break;
+			}
+			case Constants.PHONE_NUMBER_FORMAT_19: case Constants.PHONE_NUMBER_FORMAT_20: case Constants.PHONE_NUMBER_FORMAT_21:{
+				//Format ####-####### (e.g.0123-4567890)
+				//Any extra leading digits are joined to the first group.
+				setGroups(new int[]{3, 7}, numberSeparator);
+				_prefixSeparator = "";
+				break;
+			}
+			case Constants.PHONE_NUMBER_FORMAT_22: case Constants.PHONE_NUMBER_FORMAT_23: case Constants.PHONE_NUMBER_FORMAT_24:{
+				//Format ####-###-#### (e.g.1234-567-890)
+				setGroups(new int[]{4, 3, 3}, numberSeparator);
+				break;
+			}
+			case Constants.PHONE_NUMBER_FORMAT_6:{
+				//Format (###) ###-#### (e.g.(123) 456-7890)
+				setGroups(new int[]{3, 3, 4}, numberSeparator);
+				_groupSeparators[0] = "(";
+				_groupSeparators[1] = ") ";
+				_prefixSeparator = " ";
+				break;
+			}
+			case Constants.PHONE_NUMBER_FORMAT_18:{
+				//Format (####) ####### (e.g.(0123) 4567890)
+				setGroups(new int[]{0, 7}, numberSeparator);
+				_groupSeparators[0] = "(";
+				_groupSeparators[1] = ") " + numberSeparator;
+				_leadingGroupOpen = true;
+				_minimumLength = 7;
+				break;
+			}
+			default:{
+				//Format ########## (e.g.1234567890)
+				_groupSizes = null;
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Set the digit groups, from left to right, and the separator placed between them.
+	 * 
+	 * @param groupSizes - The number of digits in each group.
+	 * @param numberSeparator - The separator placed between each group.
+	 */
+	private void setGroups(int[] groupSizes, String numberSeparator){
+		int groupCount = groupSizes.length;
+		_groupSizes = groupSizes;
+		_groupTailLengths = new int[groupCount];
+		_groupSeparators = new String[groupCount];
+		int tailLength = 0;
+		for(int i = groupCount - 1; i >= 0; i--){
+			_groupTailLengths[i] = tailLength;
+			tailLength += groupSizes[i];
+			_groupSeparators[i] = numberSeparator;
+		}
+		_groupSeparators[0] = "";
+	}
+
+}
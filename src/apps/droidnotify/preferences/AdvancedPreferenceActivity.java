@@ -28,6 +28,7 @@ import apps.droidnotify.common.Constants;
 import apps.droidnotify.db.DBConstants;
 import apps.droidnotify.db.SQLiteHelperReminder;
 import apps.droidnotify.log.Log;
+import apps.droidnotify.reminder.ReminderCommon;
 
 /**
  * This is the "Advanced" applications preference Activity.
@@ -196,6 +197,7 @@ public class AdvancedPreferenceActivity extends PreferenceActivity{
 			SQLiteHelperReminder reminderDBHelper = new SQLiteHelperReminder(_context);
 			SQLiteDatabase reminderDB = reminderDBHelper.getWritableDatabase();
 			reminderDB.delete(DBConstants.TABLE_NAME_REMINDER, null, null);
+			ReminderCommon.clearDismissedActions();
 	    	return null;
 	    }
 	    /**
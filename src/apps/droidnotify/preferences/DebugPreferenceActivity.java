@@ -12,8 +12,12 @@ import android.preference.Preference.OnPreferenceClickListener;
 
 import apps.droidnotify.common.Constants;
 import apps.droidnotify.R;
+import apps.droidnotify.calendar.CalendarCommon;
 import apps.droidnotify.common.Common;
 import apps.droidnotify.log.Log;
+import apps.droidnotify.reminder.ReminderCommon;
+import apps.droidnotify.services.GenericNotificationService;
+import apps.droidnotify.services.WakefulIntentService;
 
 /**
  * This is the "Debug" applications preference Activity.
@@ -113,6 +117,24 @@ public class DebugPreferenceActivity extends PreferenceActivity implements OnSha
 		    	return true;
         	}
 		});
+		//Calendar Wakeups Saved
+		String calendarWakeupsSavedSummary = CalendarCommon.getCalendarWakeupsSavedSummary(_context);
+		if(calendarWakeupsSavedSummary != null){
+			Preference calendarWakeupsSavedPreference = (Preference)this.findPreference(Constants.CALENDAR_WAKEUPS_SAVED_KEY);
+			calendarWakeupsSavedPreference.setSummary(calendarWakeupsSavedSummary);
+		}
+		//Rejected Generic Notifications
+		Preference genericNotificationsRejectedPreference = (Preference)this.findPreference(Constants.GENERIC_NOTIFICATIONS_REJECTED_KEY);
+		genericNotificationsRejectedPreference.setSummary(_context.getString(R.string.generic_notifications_rejected_summary, String.valueOf(GenericNotificationService.getRateLimitedCount()), String.valueOf(GenericNotificationService.getDuplicateCount())));
+		//Service Queue Status
+		Preference serviceQueueStatusPreference = (Preference)this.findPreference(Constants.SERVICE_QUEUE_STATUS_KEY);
+		serviceQueueStatusPreference.setSummary(_context.getString(R.string.service_queue_status_summary, String.valueOf(WakefulIntentService.getPendingWorkCount()), String.valueOf(WakefulIntentService.getDroppedWorkCount()), String.valueOf(WakefulIntentService.getAverageWaitTime()), String.valueOf(WakefulIntentService.getMaxWaitTime())));
+		//Reminder DB Status
+		String reminderDBStatusSummary = ReminderCommon.getReminderDBStatusSummary(_context);
+		if(reminderDBStatusSummary != null){
+			Preference reminderDBStatusPreference = (Preference)this.findPreference(Constants.REMINDER_DB_STATUS_KEY);
+			reminderDBStatusPreference.setSummary(reminderDBStatusSummary);
+		}
 	}
 	
 }
\ No newline at end of file
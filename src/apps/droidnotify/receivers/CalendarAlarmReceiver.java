@@ -6,6 +6,7 @@ import android.content.Intent;
 import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
 
+import apps.droidnotify.calendar.CalendarCommon;
 import apps.droidnotify.log.Log;
 import apps.droidnotify.services.CalendarAlarmReceiverService;
 import apps.droidnotify.services.WakefulIntentService;
@@ -51,6 +52,9 @@ public class CalendarAlarmReceiver extends BroadcastReceiver {
 				if (_debug) Log.v(context, "CalendarAlarmReceiver.onReceive() Calendar Notifications Disabled. Exiting... ");
 				return;
 			}
+		    if(preferences.getBoolean(Constants.CALENDAR_EVENT_DRIVEN_ENABLED_KEY, false)){
+		    	CalendarCommon.recordCalendarRefreshWakeup(context);
+		    }
 			WakefulIntentService.sendWakefulWork(context, new Intent(context, CalendarAlarmReceiverService.class));
 		}catch(Exception ex){
 			Log.e(context, "CalendarAlarmReceiver.onReceive() ERROR: " + ex.toString());
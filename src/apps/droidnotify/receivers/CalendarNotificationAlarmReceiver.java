@@ -7,6 +7,7 @@ import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
 
 import apps.droidnotify.log.Log;
+import apps.droidnotify.services.CalendarAlarmReceiverService;
 import apps.droidnotify.services.CalendarNotificationAlarmBroadcastReceiverService;
 import apps.droidnotify.services.WakefulIntentService;
 import apps.droidnotify.common.Constants;
@@ -54,6 +55,10 @@ public class CalendarNotificationAlarmReceiver extends BroadcastReceiver {
 		    Intent calendarNotificationAlarmBroadcastReceiverServiceIntent = new Intent(context, CalendarNotificationAlarmBroadcastReceiverService.class);
 		    calendarNotificationAlarmBroadcastReceiverServiceIntent.putExtras(intent.getExtras());
 			WakefulIntentService.sendWakefulWork(context, calendarNotificationAlarmBroadcastReceiverServiceIntent);
+			//Arm the alarm for the next calendar event while the phone is already awake.
+			if(preferences.getBoolean(Constants.CALENDAR_EVENT_DRIVEN_ENABLED_KEY, false)){
+				WakefulIntentService.sendWakefulWork(context, new Intent(context, CalendarAlarmReceiverService.class));
+			}
 		}catch(Exception ex){
 			Log.e(context, "CalendarNotificationAlarmReceiver.onReceive() ERROR: " + ex.toString());
 		}
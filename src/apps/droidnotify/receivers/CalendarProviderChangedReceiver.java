@@ -0,0 +1,66 @@
+package apps.droidnotify.receivers;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.preference.PreferenceManager;
+
+import apps.droidnotify.calendar.CalendarCommon;
+import apps.droidnotify.log.Log;
+import apps.droidnotify.common.Constants;
+
+/**
+ * This class listens for changes to the users calendars.
+ * 
+ * @author Camille Svigny
+ */
+public class CalendarProviderChangedReceiver extends BroadcastReceiver {
+	
+	//================================================================================
+    // Properties
+    //================================================================================
+	
+	private boolean _debug = false;
+	  
+	//================================================================================
+	// Public Methods
+	//================================================================================
+	
+	/**
+	 * Receives a notification that the calendar content provider has changed.
+	 * This function clears the cached calendar information and schedules a refresh of the calendar alarms if the event driven calendar refresh is enabled.
+	 * 
+	 * @param context - Application Context.
+	 * @param intent - Intent object that we are working with.
+	 */
+	@Override
+	public void onReceive(Context context, Intent intent) {
+		_debug = Log.getDebug(context);
+		if (_debug) Log.v(context, "CalendarProviderChangedReceiver.onReceive()");
+		try{
+			//The cached calendars, events and event states are stale as soon as the calendars change.
+			CalendarCommon.clearCalendarCaches();
+			SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+			//Read preferences and exit if app is disabled.
+			if(!preferences.getBoolean(Constants.APP_ENABLED_KEY, true)){
+				if (_debug) Log.v(context, "CalendarProviderChangedReceiver.onReceive() App Disabled. Exiting...");
+				return;
+			}
+			//Read preferences and exit if calendar notifications are disabled.
+		    if(!preferences.getBoolean(Constants.CALENDAR_NOTIFICATIONS_ENABLED_KEY, true)){
+				if (_debug) Log.v(context, "CalendarProviderChangedReceiver.onReceive() Calendar Notifications Disabled. Exiting... ");
+				return;
+			}
+			//Read preferences and exit if the calendars are being polled instead.
+		    if(!preferences.getBoolean(Constants.CALENDAR_EVENT_DRIVEN_ENABLED_KEY, false)){
+				if (_debug) Log.v(context, "CalendarProviderChangedReceiver.onReceive() Event Driven Calendar Refresh Disabled. Exiting... ");
+				return;
+			}
+			CalendarCommon.startCalendarRefresh(context);
+		}catch(Exception ex){
+			Log.e(context, "CalendarProviderChangedReceiver.onReceive() ERROR: " + ex.toString());
+		}
+	}
+	
+}
\ No newline at end of file
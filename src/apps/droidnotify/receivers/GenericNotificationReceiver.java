@@ -49,7 +49,8 @@ public class GenericNotificationReceiver extends BroadcastReceiver {
 			Intent genericNotificaitonIntent = new Intent(context, GenericNotificationService.class);
 			genericNotificaitonIntent.putExtras(intent.getExtras());
 			genericNotificaitonIntent.putExtra(Constants.BUNDLE_NOTIFICATION_TYPE, Constants.NOTIFICATION_TYPE_GENERIC);
-			WakefulIntentService.sendWakefulWork(context, genericNotificaitonIntent);
+			genericNotificaitonIntent.setAction(intent.getAction());
+			WakefulIntentService.sendWakefulWork(context, genericNotificaitonIntent, WakefulIntentService.PRIORITY_LOW);
 		}catch(Exception ex){
 			Log.e(context, "GenericNotificationReceiver.onReceive() ERROR: " + ex.toString());
 		}
@@ -6,6 +6,7 @@ import android.content.Intent;
 import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
 
+import apps.droidnotify.k9.K9Common;
 import apps.droidnotify.log.Log;
 import apps.droidnotify.services.K9BroadcastReceiverService;
 import apps.droidnotify.services.WakefulIntentService;
@@ -51,10 +52,18 @@ public class K9Receiver extends BroadcastReceiver{
 				if (_debug) Log.v(context, "K9Receiver.onReceive() K9 Notifications Disabled. Exiting...");
 				return;
 			}
+			//Broadcasts that arrive while a sync burst is being collected are read with that burst.
+			if(!K9Common.addPendingK9Broadcast(intent)){
+				if (_debug) Log.v(context, "K9Receiver.onReceive() Added To The Current Burst. Exiting...");
+				return;
+			}
 			Intent k9BroadcastReceiverServiceIntent = new Intent(context, K9BroadcastReceiverService.class);
 		    k9BroadcastReceiverServiceIntent.putExtras(intent.getExtras());
 		    k9BroadcastReceiverServiceIntent.setAction(intent.getAction());
-			WakefulIntentService.sendWakefulWork(context, k9BroadcastReceiverServiceIntent);
+			if(!WakefulIntentService.sendWakefulWork(context, k9BroadcastReceiverServiceIntent, WakefulIntentService.PRIORITY_NORMAL)){
+				//Start a new burst with the next broadcast.
+				K9Common.takePendingK9Broadcasts();
+			}
 		}catch(Exception ex){
 			Log.e(context, "K9Receiver.onReceive() ERROR: " + ex.toString());
 		}
@@ -50,7 +50,7 @@ public class MMSReceiver extends BroadcastReceiver{
 				if (_debug) Log.v(context, "MMSReceiver.onReceive() SMS Notifications Disabled. Exiting...");
 				return;
 			}
-			WakefulIntentService.sendWakefulWork(context, new Intent(context, MMSBroadcastReceiverService.class));
+			WakefulIntentService.sendWakefulWork(context, new Intent(context, MMSBroadcastReceiverService.class), WakefulIntentService.PRIORITY_HIGH);
 		}catch(Exception ex){
 			Log.e(context, "MMSReceiver.onReceive() ERROR: " + ex.toString());
 		}
@@ -0,0 +1,49 @@
+package apps.droidnotify.receivers;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+
+import apps.droidnotify.common.Common;
+import apps.droidnotify.log.Log;
+
+/**
+ * This class listens for apps being installed, removed or updated.
+ * 
+ * @author Camille Svigny
+ */
+public class PackageChangedReceiver extends BroadcastReceiver {
+	
+	//================================================================================
+    // Properties
+    //================================================================================
+	
+	private boolean _debug = false;
+	  
+	//================================================================================
+	// Public Methods
+	//================================================================================
+	
+	/**
+	 * Receives a notification that a package was added, removed or replaced.
+	 * This function clears the cached information about the package.
+	 * 
+	 * @param context - Application Context.
+	 * @param intent - Intent object that we are working with.
+	 */
+	@Override
+	public void onReceive(Context context, Intent intent) {
+		_debug = Log.getDebug(context);
+		if (_debug) Log.v(context, "PackageChangedReceiver.onReceive()");
+		try{
+			Uri packageUri = intent.getData();
+			String packageName = packageUri == null ? null : packageUri.getSchemeSpecificPart();
+			if (_debug) Log.v(context, "PackageChangedReceiver.onReceive() Package: " + packageName);
+			Common.clearPackageCache(packageName);
+		}catch(Exception ex){
+			Log.e(context, "PackageChangedReceiver.onReceive() ERROR: " + ex.toString());
+		}
+	}
+	
+}
\ No newline at end of file
@@ -56,7 +56,7 @@ public class PhoneReceiver extends BroadcastReceiver{
 			TelephonyManager telemanager = (TelephonyManager) context.getSystemService(Context.TELEPHONY_SERVICE);
 		    int callState = telemanager.getCallState();
 		    setCallStateFlag(preferences, callState);
-			WakefulIntentService.sendWakefulWork(context, new Intent(context, PhoneBroadcastReceiverService.class));
+			WakefulIntentService.sendWakefulWork(context, new Intent(context, PhoneBroadcastReceiverService.class), WakefulIntentService.PRIORITY_HIGH);
 		}catch(Exception ex){
 			Log.e(context, "PhoneReceiver.onReceive() ERROR: " + ex.toString());
 		}
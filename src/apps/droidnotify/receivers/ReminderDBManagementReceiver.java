@@ -8,7 +8,7 @@ import apps.droidnotify.log.Log;
 import apps.droidnotify.services.ReminderDBManagementService;
 import apps.droidnotify.services.WakefulIntentService;
 /**
- * This class listens for a reminder management alarm.
+ * This class listens for a reminder management alarm or for the device being plugged in.
  * 
  * @author Camille Svigny
  */
@@ -36,7 +36,9 @@ public class ReminderDBManagementReceiver extends BroadcastReceiver {
 		_debug = Log.getDebug(context);
 		if (_debug) Log.v(context, "ReminderDBManagementReceiver.onReceive()");
 		try{
-			WakefulIntentService.sendWakefulWork(context,  new Intent(context, ReminderDBManagementService.class));
+			Intent reminderDBManagementIntent = new Intent(context, ReminderDBManagementService.class);
+			reminderDBManagementIntent.setAction(intent.getAction());
+			WakefulIntentService.sendWakefulWork(context, reminderDBManagementIntent);
 		}catch(Exception ex){
 			Log.e(context, "ReminderDBManagementReceiver.onReceive() ERROR: " + ex.toString());
 		}
@@ -53,7 +53,7 @@ public class SMSReceiver extends BroadcastReceiver{
 			}
 			Intent smsBroadcastReceiverServiceIntent = new Intent(context, SMSReceiverService.class);
 			smsBroadcastReceiverServiceIntent.putExtras(intent.getExtras());
-			WakefulIntentService.sendWakefulWork(context, smsBroadcastReceiverServiceIntent);
+			WakefulIntentService.sendWakefulWork(context, smsBroadcastReceiverServiceIntent, WakefulIntentService.PRIORITY_HIGH);
 		}catch(Exception ex){
 			Log.e(context, "SMSReceiver.onReceive() ERROR: " + ex.toString());
 		}
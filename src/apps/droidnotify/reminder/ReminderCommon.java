@@ -1,14 +1,23 @@
 package apps.droidnotify.reminder;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+
 import android.app.AlarmManager;
 import android.app.PendingIntent;
-import android.content.ContentValues;
 import android.content.Context;
 import android.content.Intent;
+import android.content.SharedPreferences;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.preference.PreferenceManager;
 
+import apps.droidnotify.R;
 import apps.droidnotify.receivers.ReminderDBManagementReceiver;
+import apps.droidnotify.common.Constants;
 import apps.droidnotify.db.DBConstants;
+import apps.droidnotify.db.ReminderDAO;
 import apps.droidnotify.db.SQLiteHelperReminder;
 import apps.droidnotify.log.Log;
 
@@ -25,11 +34,21 @@ public class ReminderCommon {
 	
 	private final static long MILLISECONDS_PER_DAY = 1000L * 60 * 60 * 24;
 	
+	//Old reminders are deleted in small chunks so that the reminder DB is never locked for long.
+	private final static int CLEAN_DB_CHUNK_SIZE = 200;
+	private final static int CLEAN_DB_MAX_CHUNKS = 5;
+	private final static int CLEAN_DB_MAX_CHUNKS_CHARGING = 50;
+	//Opportunistic cleanups are skipped if the reminder DB was cleaned within this time.
+	private final static long CLEAN_DB_MIN_INTERVAL = MILLISECONDS_PER_DAY / 4;
+	//The reminder DB file is compacted at most this often, and only while the device is charging.
+	private final static long VACUUM_DB_INTERVAL = MILLISECONDS_PER_DAY * 7;
+	
 	//================================================================================
     // Properties
     //================================================================================
 	
 	private static boolean _debug = false;
+	private static HashSet<String> _dismissedActions = null;
 
 	//================================================================================
 	// Public Methods
@@ -48,52 +67,19 @@ public class ReminderCommon {
 		_debug = Log.getDebug(context);
 		if(_debug) Log.v(context, "ReminderCommon.insertValue()");
         try{
-			int dismissedInt = dismissed ? 1 : 0;
-			//Check the DB to ensure that this reminder was not already added.
-			Cursor cursor = null;
-	        try{
-	    		final String[] projection = new String[]{DBConstants.COLUMN_ID, DBConstants.COLUMN_CREATED, DBConstants.COLUMN_ACTION, DBConstants.COLUMN_DISMISSED};
-	    		final String selection = DBConstants.COLUMN_ACTION + "=?";
-	    		final String[] selectionArgs = new String[]{intentAction};
-	    		final String sortOrder = null;
-			    cursor = context.getContentResolver().query(
-			    		DBConstants.CONTENT_URI_REMINDER,
-			    		projection,
-			    		selection,
-						selectionArgs,
-						sortOrder);
-			    if(cursor ==  null){
-			    	if(_debug) Log.v(context, "ReminderCommon.insertValue() Currsor is null, no record found for this intentAction.");
-			    }else{
-				    if(cursor.moveToFirst()){
-				    	//This reminder has already been added.
-				    	if(_debug) Log.v(context, "ReminderCommon.insertValue() Reminder action has already been added. Returning existing entry.");
-				    	cursor.close();
-				    	//Return existing row of data.
-			        	return true;
-				    }
-				    cursor.close();
-			    }
-			}catch(Exception ex){
-				Log.e(context, "ReminderCommon.insertValue() Check If Entry Exists ERROR: " + ex.toString());
-				//Create the reminder database.
-				SQLiteHelperReminder reminderDBHelper = new SQLiteHelperReminder(context);
-	        	reminderDBHelper.getReadableDatabase();
-	        	reminderDBHelper.close();
-				if(cursor != null){
-					cursor.close();
-				}
-				return false;
-			}
-	        //Insert the new reminder into the db.
-        	ContentValues contentValues = new ContentValues();
-			contentValues.put(DBConstants.COLUMN_CREATED, System.currentTimeMillis());
-			contentValues.put(DBConstants.COLUMN_ACTION, intentAction);
-			contentValues.put(DBConstants.COLUMN_DISMISSED, dismissedInt);
-        	context.getContentResolver().insert(DBConstants.CONTENT_URI_REMINDER, contentValues);
+	        //Insert the new reminder into the db. The insert is ignored if this reminder was already added.
+        	if(!ReminderDAO.getReminderDAO(context).insertReminder(intentAction, dismissed)){
+        		if(_debug) Log.v(context, "ReminderCommon.insertValue() Reminder action has already been added.");
+        	}else{
+        		setDismissedAction(intentAction, dismissed);
+        	}
         	return true;
 		}catch(Exception ex){
 			Log.e(context, "ReminderCommon.insertValue() ERROR: " + ex.toString());
+			//Create the reminder database.
+			SQLiteHelperReminder reminderDBHelper = new SQLiteHelperReminder(context);
+        	reminderDBHelper.getReadableDatabase();
+        	reminderDBHelper.close();
 			return false;
 		}
 	}
@@ -111,18 +97,50 @@ public class ReminderCommon {
 		_debug = Log.getDebug(context);
 		if(_debug) Log.v(context, "ReminderCommon.updateValue()");
         try{
-        	ContentValues contentValues = new ContentValues();
         	if(intentAction == null){
         		if (_debug) Log.v(context, "ReminderCommon.updateValue() Reminder Action is null. Exiting...");
         		return false;
         	}        	
-			int dismissedInt = dismissed ? 1 : 0;
-			contentValues.put(DBConstants.COLUMN_DISMISSED, dismissedInt);
-			String updateWhere = DBConstants.COLUMN_ACTION + "=?";
-        	context.getContentResolver().update(DBConstants.CONTENT_URI_REMINDER, contentValues, updateWhere, new String[]{intentAction});
+        	ArrayList<String> intentActions = new ArrayList<String>();
+        	intentActions.add(intentAction);
+        	ReminderDAO.getReminderDAO(context).updateReminders(intentActions, dismissed);
+        	setDismissedAction(intentAction, dismissed);
         	return true;
 		}catch(Exception ex){
 			Log.e(context, "ReminderCommon.updateValue() ERROR: " + ex.toString());
+			clearDismissedActions();
+			//Create the reminder database.
+			SQLiteHelperReminder reminderDBHelper = new SQLiteHelperReminder(context);
+        	reminderDBHelper.getReadableDatabase();
+        	reminderDBHelper.close();
+			return false;
+		}
+	}
+	
+	/**
+	 * Update the specified values in the reminder DB in a single transaction.
+	 * 
+	 * @param context - The application context.
+	 * @param intentActions - The actions of the reminders.
+	 * @param dismissed - Whether or not these reminders are dismissed or not.
+	 * 
+	 * @return boolean - Returns true if the operation was successful.
+	 */
+	public static boolean updateValues(Context context, ArrayList<String> intentActions, boolean dismissed){		
+		_debug = Log.getDebug(context);
+		if(_debug) Log.v(context, "ReminderCommon.updateValues() Reminder Count: " + intentActions.size());
+        try{
+        	if(intentActions.isEmpty()){
+        		return true;
+        	}
+        	ReminderDAO.getReminderDAO(context).updateReminders(intentActions, dismissed);
+			for(String intentAction : intentActions){
+				setDismissedAction(intentAction, dismissed);
+			}
+        	return true;
+		}catch(Exception ex){
+			Log.e(context, "ReminderCommon.updateValues() ERROR: " + ex.toString());
+			clearDismissedActions();
 			//Create the reminder database.
 			SQLiteHelperReminder reminderDBHelper = new SQLiteHelperReminder(context);
         	reminderDBHelper.getReadableDatabase();
@@ -148,39 +166,15 @@ public class ReminderCommon {
 				if (_debug) Log.v(context, "ReminderCommon.isDismissed() Reminder Action is null. Exiting...");
 				return false;
 			}
-    		Cursor cursor = null;
-            try{
-        		final String[] projection = new String[]{DBConstants.COLUMN_ID, DBConstants.COLUMN_ACTION, DBConstants.COLUMN_DISMISSED};
-	    		final String selection = DBConstants.COLUMN_ACTION + "=?";
-	    		final String[] selectionArgs = new String[]{intentAction};
-        		final String sortOrder = null;
-    		    cursor = context.getContentResolver().query(
-    		    		DBConstants.CONTENT_URI_REMINDER,
-    		    		projection,
-    		    		selection,
-    					selectionArgs,
-    					sortOrder);
-			    if(cursor ==  null){
-			    	if(_debug) Log.v(context, "ReminderCommon.isDismissed() Currsor is null. Exiting...");
-			    	return false;
-			    }
-			    if(cursor.moveToFirst()){
-    		    	long dismissedInt = cursor.getInt(cursor.getColumnIndex(DBConstants.COLUMN_DISMISSED));
-    		    	if (_debug) Log.v(context, "ReminderCommon.isDismissed() Dismissed: " + dismissedInt);
-    		    	cursor.close();
-    		    	return dismissedInt == 1 ? true : false;  		    	
-    		    }else{
-    		    	if (_debug) Log.v(context, "ReminderCommon.isDismissed() Intent Action not found. Exiting...");
-    		    	cursor.close();
-    		    	return false;
-    		    }
-    		}catch(Exception ex){
-    			Log.e(context, "ReminderCommon.isDismissed() DB Search ERROR: " + ex.toString());
-    			if(cursor != null){
-    				cursor.close();
-    			}
-    		}   		
-    		return false;
+    		HashSet<String> dismissedActions = getDismissedActions(context);
+    		if(dismissedActions == null){
+    			return false;
+    		}
+    		synchronized(dismissedActions){
+    			boolean dismissed = dismissedActions.contains(intentAction);
+    			if (_debug) Log.v(context, "ReminderCommon.isDismissed() Dismissed: " + dismissed);
+    			return dismissed;
+    		}
     	}catch(Exception ex){
     		Log.e(context, "ReminderCommon.isDismissed() ERROR: " + ex.toString());
     	    return false;
@@ -189,16 +183,58 @@ public class ReminderCommon {
 	
 	/**
 	 * Clean old reminders from the reminder DB.
+	 * Reminders older than the retention period are deleted in bounded chunks.
+	 * While charging, more chunks are deleted and the DB file is periodically compacted.
+	 * The DB size and the duration of the cleanup are recorded in the preferences.
+	 * 
+	 * @param context - The application context.
+	 * @param charging - True if the device is charging.
 	 * 
 	 * @return boolean - Returns true if the operation was successful.
 	 */
-	public static boolean cleanDB(Context context){
+	public static boolean cleanDB(Context context, boolean charging){
 		_debug = Log.getDebug(context);
-		if(_debug) Log.v(context, "ReminderCommon.cleanDB()");
+		if(_debug) Log.v(context, "ReminderCommon.cleanDB() Charging: " + charging);
         try{
-			String deleteWhere = DBConstants.COLUMN_CREATED + "<?";
-			String[] selectionArgs = new String[]{String.valueOf(System.currentTimeMillis() - (MILLISECONDS_PER_DAY * 3))};
-        	context.getContentResolver().delete(DBConstants.CONTENT_URI_REMINDER, deleteWhere, selectionArgs);
+        	long startTime = System.currentTimeMillis();
+        	SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+        	long retentionDays = Long.parseLong(preferences.getString(Constants.REMINDER_RETENTION_KEY, Constants.REMINDER_RETENTION_DEFAULT));
+			long createdBefore = startTime - (MILLISECONDS_PER_DAY * retentionDays);
+			ReminderDAO reminderDAO = ReminderDAO.getReminderDAO(context);
+			int maxChunks = charging ? CLEAN_DB_MAX_CHUNKS_CHARGING : CLEAN_DB_MAX_CHUNKS;
+			int deletedCount = 0;
+			for(int i = 0; i < maxChunks; i++){
+				int chunkCount = reminderDAO.deleteOldReminders(createdBefore, CLEAN_DB_CHUNK_SIZE);
+				deletedCount += chunkCount;
+				if(chunkCount < CLEAN_DB_CHUNK_SIZE){
+					break;
+				}
+			}
+			if(deletedCount > 0){
+				//Reload the dismissed reminders that are left the next time they are needed.
+				clearDismissedActions();
+			}
+			SharedPreferences.Editor editor = preferences.edit();
+			if(charging && startTime - preferences.getLong(Constants.REMINDER_DB_VACUUM_TIME_KEY, 0) > VACUUM_DB_INTERVAL){
+				//VACUUM rebuilds the DB file so that the space of the deleted reminders is returned to the system.
+				SQLiteDatabase db = SQLiteHelperReminder.getDatabase(context);
+				db.execSQL("VACUUM");
+				//With write-ahead logging the rebuilt DB is written to the WAL file first. Checkpoint it so the DB file shrinks now.
+				Cursor cursor = db.rawQuery("PRAGMA wal_checkpoint(TRUNCATE);", null);
+				cursor.moveToFirst();
+				cursor.close();
+				editor.putLong(Constants.REMINDER_DB_VACUUM_TIME_KEY, startTime);
+			}
+			long cleanDuration = System.currentTimeMillis() - startTime;
+			//Include the WAL file, which holds the changes that have not been checkpointed yet.
+			File databaseFile = context.getDatabasePath(DBConstants.DATABASE_NAME_REMINDER);
+			long databaseSize = databaseFile.length() + new File(databaseFile.getPath() + "-wal").length();
+			editor.putLong(Constants.REMINDER_DB_CLEAN_TIME_KEY, startTime);
+			editor.putLong(Constants.REMINDER_DB_CLEAN_DURATION_KEY, cleanDuration);
+			editor.putInt(Constants.REMINDER_DB_CLEAN_DELETED_COUNT_KEY, deletedCount);
+			editor.putLong(Constants.REMINDER_DB_SIZE_KEY, databaseSize);
+			editor.commit();
+			if(_debug) Log.v(context, "ReminderCommon.cleanDB() Deleted Reminders: " + deletedCount + " Duration: " + cleanDuration + "ms DB Size: " + databaseSize);
         	return true;
 		}catch(Exception ex){
 			Log.e(context, "ReminderCommon.cleanDB() ERROR: " + ex.toString());
@@ -210,6 +246,41 @@ public class ReminderCommon {
 		}
 	}
 	
+	/**
+	 * Determine if an opportunistic cleanup of the reminder DB should run.
+	 * 
+	 * @param context - The application context.
+	 * 
+	 * @return boolean - Returns true if the reminder DB has not been cleaned recently.
+	 */
+	public static boolean isCleanDBDue(Context context){
+		SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+		return System.currentTimeMillis() - preferences.getLong(Constants.REMINDER_DB_CLEAN_TIME_KEY, 0) > CLEAN_DB_MIN_INTERVAL;
+	}
+	
+	/**
+	 * Get the summary of the last reminder DB cleanup.
+	 * 
+	 * @param context - The application context.
+	 * 
+	 * @return String - The summary or null if the reminder DB has not been cleaned yet.
+	 */
+	public static String getReminderDBStatusSummary(Context context){
+		try{
+			SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+			if(preferences.getLong(Constants.REMINDER_DB_CLEAN_TIME_KEY, 0) == 0){
+				return null;
+			}
+			long databaseSize = preferences.getLong(Constants.REMINDER_DB_SIZE_KEY, 0);
+			int deletedCount = preferences.getInt(Constants.REMINDER_DB_CLEAN_DELETED_COUNT_KEY, 0);
+			long cleanDuration = preferences.getLong(Constants.REMINDER_DB_CLEAN_DURATION_KEY, 0);
+			return context.getString(R.string.reminder_db_status_summary, String.valueOf(databaseSize / 1024), String.valueOf(deletedCount), String.valueOf(cleanDuration));
+		}catch(Exception ex){
+			Log.e(context, "ReminderCommon.getReminderDBStatusSummary() ERROR: " + ex.toString());
+			return null;
+		}
+	}
+	
 	/**
 	* Start the reminder DB cleanup recurring alarm.
 	* 
@@ -229,4 +300,58 @@ public class ReminderCommon {
 		}
 	}
 	
+	/**
+	 * Drop the loaded dismissed reminder actions so that they are read from the reminder DB again.
+	 * This must be called after the reminder DB is changed without using this class.
+	 */
+	public static synchronized void clearDismissedActions(){
+		_dismissedActions = null;
+	}
+	
+	//================================================================================
+	// Private Methods
+	//================================================================================
+	
+	/**
+	 * Get the actions of the dismissed reminders, reading them from the reminder DB the first time they are needed.
+	 * 
+	 * @param context - The application context.
+	 * 
+	 * @return HashSet<String> - The dismissed reminder actions or null if the reminder DB could not be read.
+	 */
+	private static synchronized HashSet<String> getDismissedActions(Context context){
+		if(_dismissedActions != null){
+			return _dismissedActions;
+		}
+		HashSet<String> dismissedActions = null;
+        try{
+        	dismissedActions = ReminderDAO.getReminderDAO(context).getDismissedActions();
+		}catch(Exception ex){
+			Log.e(context, "ReminderCommon.getDismissedActions() DB Search ERROR: " + ex.toString());
+			return null;
+		}
+        if(_debug) Log.v(context, "ReminderCommon.getDismissedActions() Dismissed Reminders: " + dismissedActions.size());
+        _dismissedActions = dismissedActions;
+		return dismissedActions;
+	}
+	
+	/**
+	 * Update the dismissed state of a reminder in the loaded dismissed reminder actions.
+	 * 
+	 * @param intentAction - The action of the reminder.
+	 * @param dismissed - Whether or not this reminder is dismissed or not.
+	 */
+	private static synchronized void setDismissedAction(String intentAction, boolean dismissed){
+		if(_dismissedActions == null){
+			return;
+		}
+		synchronized(_dismissedActions){
+			if(dismissed){
+				_dismissedActions.add(intentAction);
+			}else{
+				_dismissedActions.remove(intentAction);
+			}
+		}
+	}
+	
 }
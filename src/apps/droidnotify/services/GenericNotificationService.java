@@ -1,9 +1,15 @@
 package apps.droidnotify.services;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.os.Parcelable;
 import android.preference.PreferenceManager;
 import android.telephony.TelephonyManager;
 
@@ -13,6 +19,19 @@ import apps.droidnotify.common.Constants;
 
 public class GenericNotificationService extends WakefulIntentService {
 
+	//================================================================================
+    // Properties
+    //================================================================================
+
+	private static final int RATE_LIMIT_BURST = 5;
+	private static final long RATE_LIMIT_TOKEN_INTERVAL = 3 * 1000;
+	private static final long DUPLICATE_WINDOW = 30 * 1000;
+	
+	private static final HashMap<String, RateLimitBucket> _rateLimitBuckets = new HashMap<String, RateLimitBucket>();
+	private static final LinkedHashMap<String, Long> _recentNotifications = new LinkedHashMap<String, Long>();
+	private static int _rateLimitedCount = 0;
+	private static int _duplicateCount = 0;
+	
 	//================================================================================
 	// Public Methods
 	//================================================================================
@@ -24,6 +43,24 @@ public class GenericNotificationService extends WakefulIntentService {
 		super("GenericNotificationService");
 	}
 
+	/**
+	 * Get the number of generic notifications dropped because their app sent too many notifications.
+	 * 
+	 * @return int - The number of rate limited notifications.
+	 */
+	public static synchronized int getRateLimitedCount(){
+		return _rateLimitedCount;
+	}
+	
+	/**
+	 * Get the number of generic notifications dropped because they repeated a recent notification.
+	 * 
+	 * @return int - The number of duplicate notifications.
+	 */
+	public static synchronized int getDuplicateCount(){
+		return _duplicateCount;
+	}
+	
 	//================================================================================
 	// Protected Methods
 	//================================================================================
@@ -37,6 +74,26 @@ public class GenericNotificationService extends WakefulIntentService {
 	protected void doWakefulWork(Intent intent) {
 		Context context = getApplicationContext();
 		try{
+		    Bundle intentExtrasBundle = intent.getExtras();
+		    //Screen the notifications before any phone state, contact or popup work happens.
+		    ArrayList<Bundle> genericNotificationBundles = null;
+		    if(Constants.INTENT_ACTION_API_NOTIFICATION_BATCH_RECEIVED.equals(intent.getAction())){
+		    	genericNotificationBundles = acceptGenericNotificationBatch(context, intentExtrasBundle);
+		    	if(genericNotificationBundles.isEmpty()){
+		    		Log.e(context, "GenericNotificationService.doWakefulWork() No Generic Notifications Accepted. Exiting...");
+		    		return;
+		    	}
+		    }else{
+			    //Check for empty notifications.
+			    if(isEmptyGenericNotification(intentExtrasBundle)){
+			    	Log.e(context, "GenericNotificationService.doWakefulWork() Generic Notification Is Empty. Exiting...");
+			    	return;
+			    }
+			    if(!acceptGenericNotification(intentExtrasBundle, true)){
+			    	Log.e(context, "GenericNotificationService.doWakefulWork() Generic Notification Rejected. Exiting...");
+			    	return;
+			    }
+		    }
 			SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
 			//Block the notification if it's quiet time.
 			if(Common.isQuietTime(context)){
@@ -55,10 +112,8 @@ public class GenericNotificationService extends WakefulIntentService {
 		    }else{
 		    	notificationIsBlocked = Common.isNotificationBlocked(context);
 		    }
-		    Bundle intentExtrasBundle = intent.getExtras();
-		    //Check for empty notifications.
-		    if(isEmptyGenericNotification(intentExtrasBundle)){
-		    	Log.e(context, "GenericNotificationService.doWakefulWork() Generic Notification Is Empty. Exiting...");
+		    if(genericNotificationBundles != null){
+		    	displayGenericNotificationBatch(context, genericNotificationBundles, notificationIsBlocked, callStateIdle, rescheduleNotificationInCall);
 		    	return;
 		    }
 		    if(!notificationIsBlocked){
@@ -71,6 +126,171 @@ public class GenericNotificationService extends WakefulIntentService {
 		}
 	}
 	
+	/**
+	 * Get the notifications of a notification API batch that are not empty, duplicates or rate limited.
+	 * 
+	 * @param context - The application context.
+	 * @param intentExtrasBundle - The extras of the batch intent.
+	 * 
+	 * @return ArrayList<Bundle> - The accepted notification API bundles.
+	 */
+	private ArrayList<Bundle> acceptGenericNotificationBatch(Context context, Bundle intentExtrasBundle){
+		ArrayList<Bundle> acceptedGenericNotificationBundles = new ArrayList<Bundle>();
+		Parcelable[] notificationBatch = intentExtrasBundle.getParcelableArray(Constants.BUNDLE_NOTIFICATION_BATCH);
+		if(notificationBatch == null){
+	    	Log.e(context, "GenericNotificationService.acceptGenericNotificationBatch() Notification Batch Is Empty. Exiting...");
+	    	return acceptedGenericNotificationBundles;
+		}
+		ArrayList<Bundle> genericNotificationBundles = new ArrayList<Bundle>();
+		for(Parcelable notificationParcel : notificationBatch){
+			if(!(notificationParcel instanceof Bundle)){
+				continue;
+			}
+			Bundle genericNotificationBundleSingle = (Bundle) notificationParcel;
+		    //Check for empty notifications.
+			if(isEmptyGenericNotification(genericNotificationBundleSingle)){
+		    	Log.e(context, "GenericNotificationService.acceptGenericNotificationBatch() Generic Notification Is Empty. Skipping...");
+				continue;
+			}
+			genericNotificationBundles.add(genericNotificationBundleSingle);
+		}
+		if(genericNotificationBundles.isEmpty()){
+			return acceptedGenericNotificationBundles;
+		}
+		//A batch is a single broadcast from a single app, so the whole batch spends one rate limit token.
+		if(!takeRateLimitToken(genericNotificationBundles.get(0).getString(Constants.BUNDLE_PACKAGE), genericNotificationBundles.size())){
+	    	Log.e(context, "GenericNotificationService.acceptGenericNotificationBatch() Notification Batch Rate Limited. Exiting...");
+			return acceptedGenericNotificationBundles;
+		}
+		for(Bundle genericNotificationBundleSingle : genericNotificationBundles){
+			if(!acceptGenericNotification(genericNotificationBundleSingle, false)){
+		    	Log.e(context, "GenericNotificationService.acceptGenericNotificationBatch() Generic Notification Rejected. Skipping...");
+				continue;
+			}
+			acceptedGenericNotificationBundles.add(genericNotificationBundleSingle);
+		}
+		return acceptedGenericNotificationBundles;
+	}
+	
+	/**
+	 * Display all the accepted notifications of a notification API batch with a single popup update.
+	 * 
+	 * @param context - The application context.
+	 * @param genericNotificationBundles - The accepted notification API bundles of the batch.
+	 * @param notificationIsBlocked - True if the notifications are blocked.
+	 * @param callStateIdle - True if the phone is not in a call.
+	 * @param rescheduleNotificationInCall - True if blocked notifications are rescheduled while in a call.
+	 */
+	private void displayGenericNotificationBatch(Context context, ArrayList<Bundle> genericNotificationBundles, boolean notificationIsBlocked, boolean callStateIdle, boolean rescheduleNotificationInCall){
+		Bundle genericNotificationBundle = new Bundle();
+		int bundleCount = 0;
+		for(Bundle genericNotificationBundleSingle : genericNotificationBundles){
+			genericNotificationBundleSingle.putInt(Constants.BUNDLE_NOTIFICATION_TYPE, Constants.NOTIFICATION_TYPE_GENERIC);
+		    if(notificationIsBlocked){
+		    	Common.rescheduleBlockedNotification(context, callStateIdle, rescheduleNotificationInCall, Constants.NOTIFICATION_TYPE_GENERIC, genericNotificationBundleSingle);
+		    	continue;
+		    }
+			bundleCount++;
+			genericNotificationBundle.putBundle(Constants.BUNDLE_NOTIFICATION_BUNDLE_NAME + "_" + String.valueOf(bundleCount), genericNotificationBundleSingle);
+		}
+		if(bundleCount == 0){
+			return;
+		}
+		genericNotificationBundle.putInt(Constants.BUNDLE_NOTIFICATION_BUNDLE_COUNT, bundleCount);
+		Bundle bundle = new Bundle();
+		bundle.putInt(Constants.BUNDLE_NOTIFICATION_TYPE, Constants.NOTIFICATION_TYPE_GENERIC);
+		bundle.putBundle(Constants.BUNDLE_NOTIFICATION_BUNDLE_NAME, genericNotificationBundle);
+		Common.startNotificationActivity(context, bundle);
+	}
+	
+	/**
+	 * Drop notifications that repeat a recent notification or that exceed the rate allowed for their app.
+	 * 
+	 * @param bundle - The notification API bundle.
+	 * @param rateLimit - True if the notification spends a rate limit token. Notifications of a batch share the token of the batch.
+	 * 
+	 * @return boolean - Returns true if the notification should be displayed.
+	 */
+	private static synchronized boolean acceptGenericNotification(Bundle bundle, boolean rateLimit){
+		long currentTime = System.currentTimeMillis();
+		String packageName = bundle.getString(Constants.BUNDLE_PACKAGE);
+		pruneGenericNotificationHistory(currentTime);
+		//Drop notifications that were already received in the last 30 seconds.
+		String notificationKey = packageName + "|" + bundle.getString(Constants.BUNDLE_TITLE) + "|" + String.valueOf(bundle.getCharSequence(Constants.BUNDLE_DISPLAY_TEXT));
+		if(_recentNotifications.containsKey(notificationKey)){
+			_duplicateCount++;
+			return false;
+		}
+		if(rateLimit && !takeRateLimitToken(packageName, 1)){
+			return false;
+		}
+		_recentNotifications.put(notificationKey, currentTime);
+		return true;
+	}
+	
+	/**
+	 * Take a token from the token bucket of an app.
+	 * Each app can send a burst of 5 notification broadcasts and then one broadcast every 3 seconds.
+	 * 
+	 * @param packageName - The package name of the app.
+	 * @param notificationCount - The number of notifications in the broadcast, counted as rate limited if there is no token left.
+	 * 
+	 * @return boolean - Returns true if a token was taken.
+	 */
+	private static synchronized boolean takeRateLimitToken(String packageName, int notificationCount){
+		long currentTime = System.currentTimeMillis();
+		pruneGenericNotificationHistory(currentTime);
+		//Refill the apps token bucket for the time that has passed.
+		RateLimitBucket rateLimitBucket = _rateLimitBuckets.get(packageName);
+		if(rateLimitBucket == null){
+			rateLimitBucket = new RateLimitBucket();
+			rateLimitBucket.tokens = RATE_LIMIT_BURST;
+			rateLimitBucket.refillTime = currentTime;
+			_rateLimitBuckets.put(packageName, rateLimitBucket);
+		}else if(currentTime > rateLimitBucket.refillTime){
+			long refillTokens = (currentTime - rateLimitBucket.refillTime) / RATE_LIMIT_TOKEN_INTERVAL;
+			if(rateLimitBucket.tokens + refillTokens >= RATE_LIMIT_BURST){
+				rateLimitBucket.tokens = RATE_LIMIT_BURST;
+				rateLimitBucket.refillTime = currentTime;
+			}else{
+				rateLimitBucket.tokens += refillTokens;
+				rateLimitBucket.refillTime += refillTokens * RATE_LIMIT_TOKEN_INTERVAL;
+			}
+		}else{
+			//The clock was changed.
+			rateLimitBucket.refillTime = currentTime;
+		}
+		if(rateLimitBucket.tokens <= 0){
+			_rateLimitedCount += notificationCount;
+			return false;
+		}
+		rateLimitBucket.tokens--;
+		return true;
+	}
+	
+	/**
+	 * Forget the notifications received more than 30 seconds ago and the apps whose token buckets have refilled.
+	 * 
+	 * @param currentTime - The current time.
+	 */
+	private static synchronized void pruneGenericNotificationHistory(long currentTime){
+		Iterator<Long> receivedTimes = _recentNotifications.values().iterator();
+		while(receivedTimes.hasNext()){
+			if(currentTime - receivedTimes.next() < DUPLICATE_WINDOW){
+				break;
+			}
+			receivedTimes.remove();
+		}
+		//A full bucket is the same as a new one, so it does not need to be kept.
+		Iterator<RateLimitBucket> rateLimitBuckets = _rateLimitBuckets.values().iterator();
+		while(rateLimitBuckets.hasNext()){
+			RateLimitBucket rateLimitBucket = rateLimitBuckets.next();
+			if(currentTime >= rateLimitBucket.refillTime && rateLimitBucket.tokens + ((currentTime - rateLimitBucket.refillTime) / RATE_LIMIT_TOKEN_INTERVAL) >= RATE_LIMIT_BURST){
+				rateLimitBuckets.remove();
+			}
+		}
+	}
+	
 	/**
 	 * Check for an empty notification API bundle.
 	 * 
@@ -87,4 +307,12 @@ public class GenericNotificationService extends WakefulIntentService {
 		return false;
 	}
 	
-}
+	/**
+	 * The notification tokens left for an app.
+	 */
+	private static class RateLimitBucket {
+		public long tokens;
+		public long refillTime;
+	}
+	
+}
\ No newline at end of file
@@ -1,17 +1,32 @@
 package apps.droidnotify.services;
 
+import java.util.ArrayList;
+
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.os.Bundle;
 import android.preference.PreferenceManager;
+import android.telephony.TelephonyManager;
 
 import apps.droidnotify.common.Common;
 import apps.droidnotify.common.Constants;
+import apps.droidnotify.k9.K9Common;
 import apps.droidnotify.log.Log;
 import apps.droidnotify.receivers.K9AlarmReceiver;
 
 public class K9BroadcastReceiverService extends WakefulIntentService {
 
+	//================================================================================
+    // Properties
+    //================================================================================
+
+	private static final long K9_RETRY_INITIAL_DELAY = 50;
+	private static final long K9_RETRY_MAX_DELAY = 1000;
+	private static final long K9_BURST_WINDOW = 250;
+	
+	private boolean _debug = false;
+	
 	//================================================================================
 	// Public Methods
 	//================================================================================
@@ -35,23 +50,124 @@ public class K9BroadcastReceiverService extends WakefulIntentService {
 	@Override
 	protected void doWakefulWork(Intent intent) {
 		Context context = getApplicationContext();
+		_debug = Log.getDebug(context);
 		try{
 			SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+			long startTime = System.currentTimeMillis();
 			//Block the notification if it's quiet time.
 			if(Common.isQuietTime(context)){
+				K9Common.takePendingK9Broadcasts();
 				Log.e(context, "K9BroadcastReceiverService.doWakefulWork() Quiet Time. Exiting...");
 				return;
 			}
-			//Schedule task x seconds after the broadcast.
-			//This time is set by the users advanced preferences. 1 seconds is the default value.
-			//This should allow enough time to pass for the email db to be written to.
+			//Read the messages as soon as the email db has been written to.
+			//The K9 timeout set by the users advanced preferences bounds the wait. 1 seconds is the default value.
 			long timeoutInterval = Long.parseLong(preferences.getString(Constants.K9_TIMEOUT_KEY, "1")) * 1000;
-			String intentActionText = intent.getAction() + "/" + String.valueOf(System.currentTimeMillis());
-			long alarmTime = System.currentTimeMillis() + timeoutInterval;
-			Common.startAlarm(context, K9AlarmReceiver.class, intent.getExtras(), intentActionText, alarmTime);
+			waitForK9Message(context, intent, timeoutInterval);
+			//Let the rest of a sync burst arrive so that it is read with a single query and displayed at once.
+			long burstWaitTime = startTime + K9_BURST_WINDOW - System.currentTimeMillis();
+			if(burstWaitTime > 0){
+				try{
+					Thread.sleep(burstWaitTime);
+				}catch(InterruptedException ex){
+					//Read the messages that have arrived so far.
+				}
+			}
+			ArrayList<Intent> k9Intents = K9Common.takePendingK9Broadcasts();
+			if(k9Intents.size() == 0){
+				k9Intents.add(intent);
+			}
+			if (_debug) Log.v(context, "K9BroadcastReceiverService.doWakefulWork() Burst Size: " + k9Intents.size());
+			ArrayList<Intent> missingK9Intents = new ArrayList<Intent>();
+			Bundle emailNotificationBundle = K9Common.getK9MessagesFromIntents(context, k9Intents, missingK9Intents);
+			if(emailNotificationBundle != null){
+				displayK9Notifications(context, preferences, emailNotificationBundle);
+			}
+			//The messages that are still not visible are tried one last time x seconds from now.
+			int missingK9IntentCount = missingK9Intents.size();
+			for(int i = 0; i < missingK9IntentCount; i++){
+				Intent missingK9Intent = missingK9Intents.get(i);
+				String intentActionText = missingK9Intent.getAction() + "/" + String.valueOf(System.currentTimeMillis()) + "/" + String.valueOf(i);
+				long alarmTime = System.currentTimeMillis() + timeoutInterval;
+				Common.startAlarm(context, K9AlarmReceiver.class, missingK9Intent.getExtras(), intentActionText, alarmTime);
+			}
 		}catch(Exception ex){
 			Log.e(context, "K9BroadcastReceiverService.doWakefulWork() ERROR: " + ex.toString());
 		}
 	}
+	
+	//================================================================================
+	// Private Methods
+	//================================================================================
+	
+	/**
+	 * Display the K9 notifications of a burst with a single popup update.
+	 * The notifications are rescheduled if they are blocked.
+	 * 
+	 * @param context - The application context.
+	 * @param preferences - The users preferences.
+	 * @param emailNotificationBundle - The K9 notifications that were read.
+	 */
+	private void displayK9Notifications(Context context, SharedPreferences preferences, Bundle emailNotificationBundle){
+		Bundle emailNotificationBundleSingle = emailNotificationBundle.getBundle(Constants.BUNDLE_NOTIFICATION_BUNDLE_NAME + "_1");
+	    //Check the state of the users phone.
+	    TelephonyManager telemanager = (TelephonyManager) context.getSystemService(Context.TELEPHONY_SERVICE);
+	    boolean notificationIsBlocked = false;
+	    boolean rescheduleNotificationInCall = false;
+	    boolean callStateIdle = telemanager.getCallState() == TelephonyManager.CALL_STATE_IDLE;
+	    //Reschedule notification based on the users preferences.
+	    if(!callStateIdle){
+	    	notificationIsBlocked = true;
+	    	rescheduleNotificationInCall = preferences.getBoolean(Constants.IN_CALL_RESCHEDULING_ENABLED_KEY, false);
+	    }else{
+	    	notificationIsBlocked = Common.isNotificationBlocked(context);
+	    }
+	    if(!notificationIsBlocked){
+			Bundle bundle = new Bundle();
+			bundle.putInt(Constants.BUNDLE_NOTIFICATION_TYPE, Constants.NOTIFICATION_TYPE_K9);
+			bundle.putBundle(Constants.BUNDLE_NOTIFICATION_BUNDLE_NAME, emailNotificationBundle);
+	    	Common.startNotificationActivity(context, bundle);
+	    }else{
+	    	//Display the Status Bar Notification even though the popup is blocked based on the user preferences.
+	    	if(preferences.getBoolean(Constants.K9_STATUS_BAR_NOTIFICATIONS_SHOW_WHEN_BLOCKED_ENABLED_KEY, true)){
+	    		if(emailNotificationBundleSingle != null){
+					//Display Status Bar Notification
+				    Common.setStatusBarNotification(context, 1, Constants.NOTIFICATION_TYPE_K9, 0, callStateIdle, emailNotificationBundleSingle.getString(Constants.BUNDLE_CONTACT_NAME), emailNotificationBundleSingle.getLong(Constants.BUNDLE_CONTACT_ID, -1), emailNotificationBundleSingle.getString(Constants.BUNDLE_SENT_FROM_ADDRESS), emailNotificationBundleSingle.getString(Constants.BUNDLE_MESSAGE_BODY), emailNotificationBundleSingle.getString(Constants.BUNDLE_K9_EMAIL_URI), null, -1, false, Common.getStatusBarNotificationBundle(context, Constants.NOTIFICATION_TYPE_K9));
+	    		}
+	    	}
+	    	Common.rescheduleBlockedNotification(context, callStateIdle, rescheduleNotificationInCall, Constants.NOTIFICATION_TYPE_K9, emailNotificationBundle);
+	    }
+	}
+	
+	/**
+	 * Wait for the K9 message to be written to the K9 client db.
+	 * The K9 client is checked again after 50ms, 100ms, 200ms... until the message is found or the timeout is used up.
+	 * 
+	 * @param context - The application context.
+	 * @param intent - The incoming K9 intent.
+	 * @param timeoutInterval - The maximum time to wait in milliseconds.
+	 * 
+	 * @return boolean - Returns true if the message was found.
+	 */
+	private boolean waitForK9Message(Context context, Intent intent, long timeoutInterval){
+		Bundle bundle = intent.getExtras();
+		String intentAction = intent.getAction();
+		long retryDelay = K9_RETRY_INITIAL_DELAY;
+		long waitTime = 0;
+		while(waitTime < timeoutInterval){
+			long sleepTime = Math.min(retryDelay, timeoutInterval - waitTime);
+			try{
+				Thread.sleep(sleepTime);
+			}catch(InterruptedException ex){
+				return false;
+			}
+			waitTime += sleepTime;
+			if(K9Common.isK9MessageAvailable(context, bundle, intentAction)){
+				return true;
+			}
+			retryDelay = Math.min(retryDelay * 2, K9_RETRY_MAX_DELAY);
+		}
+		return false;
+	}
 		
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package apps.droidnotify.services;
 import android.content.Context;
 import android.content.Intent;
 
+import apps.droidnotify.calendar.CalendarCommon;
 import apps.droidnotify.common.Common;
 import apps.droidnotify.log.Log;
 
@@ -37,6 +38,8 @@ public class OnBootService extends WakefulIntentService {
 	protected void doWakefulWork(Intent intent) {
 		Context context = this.getApplicationContext();
 		try{
+			//Alarms do not survive a reboot, so every calendar alarm needs to be scheduled again.
+			CalendarCommon.clearCalendarAlarmSchedule(context);
 			Common.startAppAlarms(getApplicationContext());
 		}catch(Exception ex){
 			Log.e(context, "OnBootBroadcastReceiverService.doWakefulWork() ERROR: " + ex.toString());
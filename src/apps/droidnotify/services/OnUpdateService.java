@@ -46,6 +46,8 @@ public class OnUpdateService extends WakefulIntentService {
 			SQLiteHelperReminder reminderDBHelper = new SQLiteHelperReminder(context);
         	reminderDBHelper.getReadableDatabase();
         	reminderDBHelper.close();
+        	//Schedule every calendar alarm again on the next calendar poll.
+        	CalendarCommon.clearCalendarAlarmSchedule(context);
 			//Start Reminder DB Cleanup Alarms
 			ReminderCommon.startReminderDBManagementAlarmManager(context, System.currentTimeMillis() + (5 * 60 * 1000));
 		}catch(Exception ex){
@@ -2,6 +2,8 @@ package apps.droidnotify.services;
 
 import android.content.Context;
 import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.BatteryManager;
 
 import apps.droidnotify.log.Log;
 import apps.droidnotify.reminder.ReminderCommon;
@@ -32,10 +34,33 @@ public class ReminderDBManagementService extends WakefulIntentService {
 	protected void doWakefulWork(Intent intent) {
 		Context context = getApplicationContext();
 		try{
-			ReminderCommon.cleanDB(getApplication());
+			//Cleanups started by plugging in the device are skipped if the reminder DB was cleaned recently.
+			if(Intent.ACTION_POWER_CONNECTED.equals(intent.getAction()) && !ReminderCommon.isCleanDBDue(context)){
+				return;
+			}
+			ReminderCommon.cleanDB(context, isCharging(context));
 		}catch(Exception ex){
 			Log.e(context, "ReminderDBManagementService.doWakefulWork() ERROR: " + ex.toString());
 		}
 	}
+	
+	//================================================================================
+	// Private Methods
+	//================================================================================
+	
+	/**
+	 * Determine if the device is plugged in.
+	 * 
+	 * @param context - The application context.
+	 * 
+	 * @return boolean - Returns true if the device is charging.
+	 */
+	private boolean isCharging(Context context){
+		Intent batteryIntent = context.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+		if(batteryIntent == null){
+			return false;
+		}
+		return batteryIntent.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+	}
 		
 }
\ No newline at end of file
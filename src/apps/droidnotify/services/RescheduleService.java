@@ -80,13 +80,12 @@ public class RescheduleService extends WakefulIntentService {
 					Bundle rescheduleNotificationBundleSingle = rescheduleNotificationBundle.getBundle(Constants.BUNDLE_NOTIFICATION_BUNDLE_NAME + "_1");
 					if(rescheduleNotificationBundleSingle != null){
 						long eventID = rescheduleNotificationBundleSingle.getLong(Constants.BUNDLE_CALENDAR_EVENT_ID, -1);
-						if(preferences.getBoolean(Constants.CALENDAR_USE_CALENDAR_REMINDER_SETTINGS_KEY, true)){
-					    	if(CalendarCommon.isEventDismissed(context, eventID)){
-					    		Log.e(context, "RescheduleBroadcastReceiverService.doWakefulWork() Calendar event has already been dismissed. Exiting...");
-					    		return;
-					    	}
-						}
-				    	if(!CalendarCommon.eventExists(context, eventID)){
+						int eventStatus = CalendarCommon.getEventStatus(context, eventID, preferences.getBoolean(Constants.CALENDAR_USE_CALENDAR_REMINDER_SETTINGS_KEY, true));
+				    	if(eventStatus == Constants.CALENDAR_EVENT_STATUS_DISMISSED){
+				    		Log.e(context, "RescheduleBroadcastReceiverService.doWakefulWork() Calendar event has already been dismissed. Exiting...");
+				    		return;
+				    	}
+				    	if(eventStatus == Constants.CALENDAR_EVENT_STATUS_DELETED){
 				    		Log.e(context, "RescheduleBroadcastReceiverService.doWakefulWork() Calendar event has been deleted. Exiting...");
 				    		return;
 				    	}
@@ -13,7 +13,11 @@ package apps.droidnotify.services;
 	From _The Busy Coder's Guide to Advanced Android Development_ http://commonsware.com/AdvAndroid
 */
 
+import java.util.HashMap;
+import java.util.LinkedList;
+
 import android.app.IntentService;
+import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
 
@@ -29,6 +33,27 @@ abstract public class WakefulIntentService extends IntentService {
 	
 	abstract protected void doWakefulWork(Intent intent);
 
+	//================================================================================
+    // Properties
+    //================================================================================
+	
+	public static final int PRIORITY_LOW = 0;
+	public static final int PRIORITY_NORMAL = 1;
+	public static final int PRIORITY_HIGH = 2;
+	
+	//Low priority work is dropped first so that high priority work is never dropped.
+	private static final int MAX_PENDING_LOW_PRIORITY_SERVICE_WORK = 8;
+	private static final int MAX_PENDING_LOW_PRIORITY_WORK = 32;
+	private static final int MAX_PENDING_NORMAL_PRIORITY_WORK = 64;
+	
+	private static final Object _pendingWorkLock = new Object();
+	private static final HashMap<String, LinkedList<Long>> _pendingWork = new HashMap<String, LinkedList<Long>>();
+	private static int _pendingWorkCount = 0;
+	private static int _droppedWorkCount = 0;
+	private static int _handledWorkCount = 0;
+	private static long _totalWaitTime = 0;
+	private static long _maxWaitTime = 0;
+
 	//================================================================================
 	// Constructors
 	//================================================================================
@@ -54,8 +79,60 @@ abstract public class WakefulIntentService extends IntentService {
 	 * @param intent - Intent object that we are working with.
 	 */
 	public static void sendWakefulWork(Context context, Intent intent){
+		sendWakefulWork(context, intent, PRIORITY_NORMAL);
+	}
+	
+	/**
+	 * Start the work if the service queues have room for it.
+	 * Low priority work is dropped once 8 items wait for the same service or 32 items wait in total.
+	 * Normal priority work is dropped once 64 items wait in total. High priority work is always started.
+	 * 
+	 * @param context - Application Context.
+	 * @param intent - Intent object that we are working with.
+	 * @param priority - The priority of the work.
+	 * 
+	 * @return boolean - Returns true if the work was started.
+	 */
+	public static boolean sendWakefulWork(Context context, Intent intent, int priority){
+		String serviceName = null;
+		long sendTime = System.currentTimeMillis();
+		if(intent.getComponent() != null){
+			serviceName = intent.getComponent().getClassName();
+			synchronized(_pendingWorkLock){
+				LinkedList<Long> servicePendingWork = _pendingWork.get(serviceName);
+				int servicePendingWorkCount = servicePendingWork == null ? 0 : servicePendingWork.size();
+				boolean dropWork = false;
+				if(priority <= PRIORITY_LOW){
+					dropWork = servicePendingWorkCount >= MAX_PENDING_LOW_PRIORITY_SERVICE_WORK || _pendingWorkCount >= MAX_PENDING_LOW_PRIORITY_WORK;
+				}else if(priority == PRIORITY_NORMAL){
+					dropWork = _pendingWorkCount >= MAX_PENDING_NORMAL_PRIORITY_WORK;
+				}
+				if(dropWork){
+					_droppedWorkCount++;
+					Log.e(context, "WakefulIntentService.sendWakefulWork() Queue Full. Dropping Work: " + serviceName + " Pending Work: " + _pendingWorkCount);
+					return false;
+				}
+				if(servicePendingWork == null){
+					servicePendingWork = new LinkedList<Long>();
+					_pendingWork.put(serviceName, servicePendingWork);
+				}
+				servicePendingWork.add(sendTime);
+				_pendingWorkCount++;
+			}
+		}
 		Common.acquirePartialWakeLock(context);
-		context.startService(intent);
+		ComponentName componentName = null;
+		try{
+			componentName = context.startService(intent);
+		}catch(Exception ex){
+			Log.e(context, "WakefulIntentService.sendWakefulWork() ERROR: " + ex.toString());
+		}
+		if(componentName == null){
+			Log.e(context, "WakefulIntentService.sendWakefulWork() Service Could Not Be Started: " + intent.getComponent());
+			cancelPendingWork(serviceName, sendTime);
+			return false;
+		}
+		return true;
 	}
 	
 	/**
@@ -68,6 +145,50 @@ abstract public class WakefulIntentService extends IntentService {
 		sendWakefulWork(context, new Intent(context, clsService));
 	}
 	
+	/**
+	 * Get the number of work items waiting for the services.
+	 * 
+	 * @return int - The number of work items waiting.
+	 */
+	public static int getPendingWorkCount(){
+		synchronized(_pendingWorkLock){
+			return _pendingWorkCount;
+		}
+	}
+	
+	/**
+	 * Get the number of work items dropped because the services queues were full.
+	 * 
+	 * @return int - The number of work items dropped.
+	 */
+	public static int getDroppedWorkCount(){
+		synchronized(_pendingWorkLock){
+			return _droppedWorkCount;
+		}
+	}
+	
+	/**
+	 * Get the average time work items waited before a service handled them.
+	 * 
+	 * @return long - The average wait time in milliseconds.
+	 */
+	public static long getAverageWaitTime(){
+		synchronized(_pendingWorkLock){
+			return _handledWorkCount == 0 ? 0 : _totalWaitTime / _handledWorkCount;
+		}
+	}
+	
+	/**
+	 * Get the longest time a work item waited before a service handled it.
+	 * 
+	 * @return long - The longest wait time in milliseconds.
+	 */
+	public static long getMaxWaitTime(){
+		synchronized(_pendingWorkLock){
+			return _maxWaitTime;
+		}
+	}
+	
 	/**
 	 * 
 	 * 
@@ -95,6 +216,7 @@ abstract public class WakefulIntentService extends IntentService {
 	 */
 	@Override
 	final protected void onHandleIntent(Intent intent){
+		removePendingWork();
 		try{
 			doWakefulWork(intent);
 		}catch(Exception ex){
@@ -105,5 +227,54 @@ abstract public class WakefulIntentService extends IntentService {
 			}
 		}
 	}
+
+	//================================================================================
+	// Private Methods
+	//================================================================================
+	
+	/**
+	 * Remove a work item whose service could not be started from the pending work and release the WakeLock taken for it.
+	 * 
+	 * @param serviceName - The class name of the service or null if the work was not counted.
+	 * @param sendTime - The time the work was sent.
+	 */
+	private static void cancelPendingWork(String serviceName, long sendTime){
+		synchronized(_pendingWorkLock){
+			if(serviceName != null){
+				LinkedList<Long> servicePendingWork = _pendingWork.get(serviceName);
+				if(servicePendingWork != null && servicePendingWork.remove(Long.valueOf(sendTime))){
+					_pendingWorkCount--;
+				}
+			}
+			//Other waiting work still needs the WakeLock.
+			if(_pendingWorkCount > 0){
+				return;
+			}
+		}
+		if(!Common.isFullWakelockInUse()){
+			Common.clearWakeLock();
+		}
+	}
+	
+	/**
+	 * Remove the work item this service is about to handle from the pending work and record how long it waited.
+	 * The services handle their work in the order it was sent.
+	 */
+	private void removePendingWork(){
+		synchronized(_pendingWorkLock){
+			LinkedList<Long> servicePendingWork = _pendingWork.get(getClass().getName());
+			//Redelivered work was sent before the process restarted and is not counted.
+			if(servicePendingWork == null || servicePendingWork.isEmpty()){
+				return;
+			}
+			long waitTime = System.currentTimeMillis() - servicePendingWork.removeFirst();
+			_pendingWorkCount--;
+			_handledWorkCount++;
+			_totalWaitTime += waitTime;
+			if(waitTime > _maxWaitTime){
+				_maxWaitTime = waitTime;
+			}
+		}
+	}
 	
 }
\ No newline at end of file